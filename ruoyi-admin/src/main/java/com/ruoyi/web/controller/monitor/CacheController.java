@@ -1,8 +1,8 @@
 package com.ruoyi.web.controller.monitor;
 
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
@@ -16,10 +16,17 @@ import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import com.alibaba.fastjson2.JSON;
 import com.ruoyi.common.constant.CacheConstants;
 import com.ruoyi.common.core.domain.AjaxResult;
+import com.ruoyi.common.core.redis.RedisCache;
 import com.ruoyi.common.utils.StringUtils;
+import com.ruoyi.framework.web.service.CacheAnalyticsService;
+import com.ruoyi.framework.web.service.LoginUserCache;
+import com.ruoyi.framework.web.service.RateLimiterService;
+import com.ruoyi.framework.web.service.TokenService;
 import com.ruoyi.system.domain.SysCache;
 
 /**
@@ -34,9 +41,25 @@ public class CacheController
     @Autowired
     private RedisTemplate<String, String> redisTemplate;
 
+    @Autowired
+    private RedisCache redisCache;
+
+    @Autowired
+    private LoginUserCache loginUserCache;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Autowired
+    private RateLimiterService rateLimiterService;
+
+    @Autowired
+    private CacheAnalyticsService cacheAnalyticsService;
+
     private final static List<SysCache> caches = new ArrayList<SysCache>();
     {
         caches.add(new SysCache(CacheConstants.LOGIN_TOKEN_KEY, "用户信息"));
+        caches.add(new SysCache(CacheConstants.LOGIN_PERMISSIONS_KEY, "用户权限"));
         caches.add(new SysCache(CacheConstants.SYS_CONFIG_KEY, "配置信息"));
         caches.add(new SysCache(CacheConstants.SYS_DICT_KEY, "数据字典"));
         caches.add(new SysCache(CacheConstants.CAPTCHA_CODE_KEY, "验证码"));
@@ -54,9 +77,11 @@ public class CacheController
         Properties commandStats = (Properties) redisTemplate.execute((RedisCallback<Object>) connection -> connection.info("commandstats"));
         Object dbSize = redisTemplate.execute((RedisCallback<Object>) connection -> connection.dbSize());
 
-        Map<String, Object> result = new HashMap<>(3);
+        Map<String, Object> result = new HashMap<>(4);
         result.put("info", info);
         result.put("dbSize", dbSize);
+        result.put("loginUserCache", loginUserCache.getStatistics());
+        result.put("rateLimiter", rateLimiterService.getStatistics());
 
         List<Map<String, String>> pieList = new ArrayList<>();
         commandStats.stringPropertyNames().forEach(key -> {
@@ -70,6 +95,24 @@ public class CacheController
         return AjaxResult.success(result);
     }
 
+    /**
+     * 缓存分析：各前缀的键数量、内存估算、value大小分位、过期时间分布、最大的键，以及本节点的热点键
+     */
+    @PreAuthorize("@ss.hasPermi('monitor:cache:list')")
+    @GetMapping("/analysis")
+    public AjaxResult analysis(@RequestParam(defaultValue = "1000") int sampleSize)
+    {
+        Map<String, String> prefixes = new LinkedHashMap<>();
+        for (SysCache cache : caches)
+        {
+            prefixes.put(cache.getCacheName(), cache.getRemark());
+        }
+        Map<String, Object> result = new HashMap<>(2);
+        result.put("prefixes", cacheAnalyticsService.analyze(prefixes, Math.min(Math.max(sampleSize, 1), 10000)));
+        result.put("hotKeys", redisCache.getHotKeys(20));
+        return AjaxResult.success(result);
+    }
+
     @PreAuthorize("@ss.hasPermi('monitor:cache:list')")
     @GetMapping("/getNames")
     public AjaxResult cache()
@@ -81,15 +124,25 @@ public class CacheController
     @GetMapping("/getKeys/{cacheName}")
     public AjaxResult getCacheKeys(@PathVariable String cacheName)
     {
-        Set<String> cacheKeys = redisTemplate.keys(cacheName + "*");
-        return AjaxResult.success(new TreeSet<>(cacheKeys));
+        Set<String> cacheKeys = new TreeSet<>();
+        redisCache.scanKeys(cacheName + "*", RedisCache.SCAN_COUNT, cacheKeys::addAll);
+        return AjaxResult.success(cacheKeys);
     }
 
     @PreAuthorize("@ss.hasPermi('monitor:cache:list')")
     @GetMapping("/getValue/{cacheName}/{cacheKey}")
     public AjaxResult getCacheValue(@PathVariable String cacheName, @PathVariable String cacheKey)
     {
-        String cacheValue = redisTemplate.opsForValue().get(cacheKey);
+        String cacheValue;
+        if (CacheConstants.LOGIN_TOKEN_KEY.equals(cacheName))
+        {
+            // 登录用户以二进制格式存储，解析后展示
+            cacheValue = JSON.toJSONString(tokenService.getLoginUser(StringUtils.removeStart(cacheKey, CacheConstants.LOGIN_TOKEN_KEY)));
+        }
+        else
+        {
+            cacheValue = redisTemplate.opsForValue().get(cacheKey);
+        }
         SysCache sysCache = new SysCache(cacheName, cacheKey, cacheValue);
         return AjaxResult.success(sysCache);
     }
@@ -98,8 +151,7 @@ public class CacheController
     @DeleteMapping("/clearCacheName/{cacheName}")
     public AjaxResult clearCacheName(@PathVariable String cacheName)
     {
-        Collection<String> cacheKeys = redisTemplate.keys(cacheName + "*");
-        redisTemplate.delete(cacheKeys);
+        redisCache.deleteByPattern(cacheName + "*");
         return AjaxResult.success();
     }
 
@@ -115,8 +167,7 @@ public class CacheController
     @DeleteMapping("/clearCacheAll")
     public AjaxResult clearCacheAll()
     {
-        Collection<String> cacheKeys = redisTemplate.keys("*");
-        redisTemplate.delete(cacheKeys);
+        redisCache.deleteByPattern("*");
         return AjaxResult.success();
     }
 }
@@ -1,10 +1,15 @@
 package com.ruoyi.web.controller.monitor;
 
+import java.util.HashMap;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import com.ruoyi.common.core.domain.AjaxResult;
+import com.ruoyi.framework.manager.LogininforWriter;
+import com.ruoyi.framework.manager.OperLogWriter;
 import com.ruoyi.framework.web.domain.Server;
 
 /**
@@ -16,6 +21,12 @@ import com.ruoyi.framework.web.domain.Server;
 @RequestMapping("/monitor/server")
 public class ServerController
 {
+    @Autowired
+    private OperLogWriter operLogWriter;
+
+    @Autowired
+    private LogininforWriter logininforWriter;
+
     @PreAuthorize("@ss.hasPermi('monitor:server:list')")
     @GetMapping()
     public AjaxResult getInfo() throws Exception
@@ -24,4 +35,17 @@ public class ServerController
         server.copyTo();
         return AjaxResult.success(server);
     }
+
+    /**
+     * 日志写入队列运行情况
+     */
+    @PreAuthorize("@ss.hasPermi('monitor:server:list')")
+    @GetMapping("/async")
+    public AjaxResult getAsyncInfo()
+    {
+        Map<String, Object> result = new HashMap<>(2);
+        result.put("operLogWriter", operLogWriter.getStatistics());
+        result.put("logininforWriter", logininforWriter.getStatistics());
+        return AjaxResult.success(result);
+    }
 }
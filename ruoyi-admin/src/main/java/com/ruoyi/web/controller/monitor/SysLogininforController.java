@@ -16,6 +16,7 @@ import com.ruoyi.common.core.domain.AjaxResult;
 import com.ruoyi.common.core.page.TableDataInfo;
 import com.ruoyi.common.enums.BusinessType;
 import com.ruoyi.common.utils.poi.ExcelUtil;
+import com.ruoyi.framework.manager.LogininforWriter;
 import com.ruoyi.framework.web.service.SysPasswordService;
 import com.ruoyi.system.domain.SysLogininfor;
 import com.ruoyi.system.service.ISysLogininforService;
@@ -35,10 +36,17 @@ public class SysLogininforController extends BaseController
     @Autowired
     private SysPasswordService passwordService;
 
+    @Autowired
+    private LogininforWriter logininforWriter;
+
     @PreAuthorize("@ss.hasPermi('monitor:logininfor:list')")
     @GetMapping("/list")
     public TableDataInfo list(SysLogininfor logininfor)
     {
+        if (isKeysetPage())
+        {
+            return getKeysetDataTable(logininfor, () -> logininforService.selectLogininforList(logininfor), SysLogininfor::getInfoId);
+        }
         startPage();
         List<SysLogininfor> list = logininforService.selectLogininforList(logininfor);
         return getDataTable(list);
@@ -79,4 +87,11 @@ public class SysLogininforController extends BaseController
         passwordService.clearLoginRecordCache(userName);
         return success();
     }
+
+    @PreAuthorize("@ss.hasPermi('monitor:logininfor:list')")
+    @GetMapping("/writer")
+    public AjaxResult writer()
+    {
+        return success(logininforWriter.getStatistics());
+    }
 }
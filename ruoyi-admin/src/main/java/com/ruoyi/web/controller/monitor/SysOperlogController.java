@@ -16,6 +16,7 @@ import com.ruoyi.common.core.domain.AjaxResult;
 import com.ruoyi.common.core.page.TableDataInfo;
 import com.ruoyi.common.enums.BusinessType;
 import com.ruoyi.common.utils.poi.ExcelUtil;
+import com.ruoyi.framework.manager.OperLogWriter;
 import com.ruoyi.system.domain.SysOperLog;
 import com.ruoyi.system.service.ISysOperLogService;
 
@@ -31,10 +32,17 @@ public class SysOperlogController extends BaseController
     @Autowired
     private ISysOperLogService operLogService;
 
+    @Autowired
+    private OperLogWriter operLogWriter;
+
     @PreAuthorize("@ss.hasPermi('monitor:operlog:list')")
     @GetMapping("/list")
     public TableDataInfo list(SysOperLog operLog)
     {
+        if (isKeysetPage())
+        {
+            return getKeysetDataTable(operLog, () -> operLogService.selectOperLogList(operLog), SysOperLog::getOperId);
+        }
         startPage();
         List<SysOperLog> list = operLogService.selectOperLogList(operLog);
         return getDataTable(list);
@@ -66,4 +74,11 @@ public class SysOperlogController extends BaseController
         operLogService.cleanOperLog();
         return success();
     }
+
+    @PreAuthorize("@ss.hasPermi('monitor:operlog:list')")
+    @GetMapping("/writer")
+    public AjaxResult writer()
+    {
+        return success(operLogWriter.getStatistics());
+    }
 }
@@ -14,7 +14,6 @@ import com.ruoyi.common.core.domain.entity.SysMenu;
 import com.ruoyi.common.core.domain.entity.SysUser;
 import com.ruoyi.common.core.domain.model.LoginBody;
 import com.ruoyi.common.core.domain.model.LoginUser;
-import com.ruoyi.common.core.text.Convert;
 import com.ruoyi.common.utils.DateUtils;
 import com.ruoyi.common.utils.SecurityUtils;
 import com.ruoyi.common.utils.StringUtils;
@@ -76,11 +75,17 @@ public class SysLoginController
         SysUser user = loginUser.getUser();
         // 角色集合
         Set<String> roles = permissionService.getRolePermission(user);
-        // 权限集合
-        Set<String> permissions = permissionService.getMenuPermission(user);
-        if (!loginUser.getPermissions().equals(permissions))
+        // 权限集合，权限版本号未变化时直接使用会话中的权限
+        Set<String> permissions = loginUser.getPermissions();
+        long permissionVersion = permissionService.getVersion();
+        if (!Long.valueOf(permissionVersion).equals(loginUser.getPermissionVersion()))
         {
-            loginUser.setPermissions(permissions);
+            permissions = permissionService.getMenuPermission(user);
+            if (!permissions.equals(loginUser.getPermissions()))
+            {
+                loginUser.setPermissions(permissions);
+            }
+            loginUser.setPermissionVersion(permissionVersion);
             tokenService.refreshToken(loginUser);
         }
         AjaxResult ajax = AjaxResult.success();
@@ -108,14 +113,14 @@ public class SysLoginController
     // 检查初始密码是否提醒修改
     public boolean initPasswordIsModify(Date pwdUpdateDate)
     {
-        Integer initPasswordModify = Convert.toInt(configService.selectConfigByKey("sys.account.initPasswordModify"));
+        Integer initPasswordModify = configService.selectIntConfig("sys.account.initPasswordModify");
         return initPasswordModify != null && initPasswordModify == 1 && pwdUpdateDate == null;
     }
 
     // 检查密码是否过期
     public boolean passwordIsExpiration(Date pwdUpdateDate)
     {
-        Integer passwordValidateDays = Convert.toInt(configService.selectConfigByKey("sys.account.passwordValidateDays"));
+        Integer passwordValidateDays = configService.selectIntConfig("sys.account.passwordValidateDays");
         if (passwordValidateDays != null && passwordValidateDays > 0)
         {
             if (StringUtils.isNull(pwdUpdateDate))
@@ -60,6 +60,10 @@ public class SysUserController extends BaseController
     @GetMapping("/list")
     public TableDataInfo list(SysUser user)
     {
+        if (isKeysetPage())
+        {
+            return getKeysetDataTable(user, () -> userService.selectUserList(user), SysUser::getUserId);
+        }
         startPage();
         List<SysUser> list = userService.selectUserList(user);
         return getDataTable(list);
@@ -0,0 +1,92 @@
+package com.ruoyi.benchmark;
+
+import java.lang.reflect.Field;
+import java.util.HashMap;
+import java.util.Map;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.web.context.request.RequestAttributes;
+
+/**
+ * 基准测试工具类，在不启动Spring容器的情况下为组件注入配置与依赖
+ *
+ * @author ruoyi
+ */
+public class Benchmarks
+{
+    private Benchmarks()
+    {
+    }
+
+    /**
+     * 设置对象的私有字段
+     *
+     * @param target 目标对象
+     * @param name 字段名称
+     * @param value 字段值
+     */
+    public static void setField(Object target, String name, Object value)
+    {
+        Field field = ReflectionUtils.findField(target.getClass(), name);
+        if (field == null)
+        {
+            throw new IllegalArgumentException(target.getClass().getName() + " 没有字段 " + name);
+        }
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, target, value);
+    }
+
+    /**
+     * 不依赖Servlet容器的请求属性，供读写请求上下文的代码使用
+     */
+    public static class MapRequestAttributes implements RequestAttributes
+    {
+        private final Map<String, Object> attributes = new HashMap<>();
+
+        @Override
+        public Object getAttribute(String name, int scope)
+        {
+            return attributes.get(name);
+        }
+
+        @Override
+        public void setAttribute(String name, Object value, int scope)
+        {
+            attributes.put(name, value);
+        }
+
+        @Override
+        public void removeAttribute(String name, int scope)
+        {
+            attributes.remove(name);
+        }
+
+        @Override
+        public String[] getAttributeNames(int scope)
+        {
+            return attributes.keySet().toArray(new String[0]);
+        }
+
+        @Override
+        public void registerDestructionCallback(String name, Runnable callback, int scope)
+        {
+        }
+
+        @Override
+        public Object resolveReference(String key)
+        {
+            return null;
+        }
+
+        @Override
+        public String getSessionId()
+        {
+            return "benchmark";
+        }
+
+        @Override
+        public Object getSessionMutex()
+        {
+            return this;
+        }
+    }
+}
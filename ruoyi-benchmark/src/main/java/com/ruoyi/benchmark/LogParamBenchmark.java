@@ -0,0 +1,86 @@
+package com.ruoyi.benchmark;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import com.alibaba.fastjson2.JSON;
+import com.ruoyi.common.filter.PropertyPreExcludeFilter;
+import com.ruoyi.common.utils.StringUtils;
+import com.ruoyi.system.domain.SysNotice;
+
+/**
+ * 操作日志参数序列化基准测试
+ *
+ * legacy 为原实现（完整序列化后截取前2000个字符），bounded 为 PropertyPreExcludeFilter 设置长度上限后的写出，
+ * 建议配合 -prof gc 对比每次调用的内存分配。
+ *
+ * @author ruoyi
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LogParamBenchmark
+{
+    private static final int PARAM_MAX_LENGTH = 2000;
+
+    private static final String[] EXCLUDE_PROPERTIES = { "password", "oldPassword", "newPassword", "confirmPassword" };
+
+    private PropertyPreExcludeFilter legacyFilter;
+
+    private PropertyPreExcludeFilter boundedFilter;
+
+    /** 大文本参数，如富文本公告内容 */
+    private SysNotice notice;
+
+    /** 长数组参数，如批量删除的ID */
+    private Long[] ids;
+
+    @Setup
+    public void setup()
+    {
+        legacyFilter = new PropertyPreExcludeFilter().addExcludes(EXCLUDE_PROPERTIES);
+        boundedFilter = new PropertyPreExcludeFilter().addExcludes(EXCLUDE_PROPERTIES).setMaxLength(PARAM_MAX_LENGTH);
+        notice = new SysNotice();
+        notice.setNoticeTitle("系统升级通知");
+        notice.setNoticeType("1");
+        notice.setNoticeContent(StringUtils.repeat("<p>系统将于今晚进行升级维护，请提前保存工作内容。</p>", 2000));
+        ids = new Long[20000];
+        Arrays.setAll(ids, i -> 100000L + i);
+    }
+
+    @Benchmark
+    public String legacyNotice()
+    {
+        return StringUtils.substring(JSON.toJSONString(notice, legacyFilter), 0, PARAM_MAX_LENGTH);
+    }
+
+    @Benchmark
+    public String boundedNotice()
+    {
+        return boundedFilter.toJSONString(notice);
+    }
+
+    @Benchmark
+    public String legacyIds()
+    {
+        return StringUtils.substring(JSON.toJSONString(ids, legacyFilter), 0, PARAM_MAX_LENGTH);
+    }
+
+    @Benchmark
+    public String boundedIds()
+    {
+        return boundedFilter.toJSONString(ids);
+    }
+}
@@ -0,0 +1,164 @@
+package com.ruoyi.benchmark;
+
+import java.lang.reflect.Proxy;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestContextHolder;
+import com.ruoyi.common.constant.Constants;
+import com.ruoyi.common.core.domain.entity.SysUser;
+import com.ruoyi.common.core.domain.model.LoginUser;
+import com.ruoyi.common.utils.SecurityUtils;
+import com.ruoyi.common.utils.StringUtils;
+import com.ruoyi.framework.security.context.PermissionContextHolder;
+import com.ruoyi.framework.web.service.PermissionIndex;
+import com.ruoyi.framework.web.service.PermissionService;
+import com.ruoyi.system.service.ISysMenuService;
+
+/**
+ * 权限校验基准测试
+ *
+ * legacy 为原实现（每次 trim、split 后按字符串查找 HashSet），其余为 PermissionService 的位图实现。
+ *
+ * @author ruoyi
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PermissionServiceBenchmark
+{
+    /** 模拟菜单权限数量 */
+    private static final int MENU_PERMS = 500;
+
+    /** 用户拥有的权限数量 */
+    private static final int USER_PERMS = 80;
+
+    private static final String PERMISSION = "system:module40:edit";
+
+    private static final String ANY_PERMISSIONS = "system:module99:add,system:module40:edit";
+
+    private PermissionService permissionService;
+
+    @Setup
+    public void setup()
+    {
+        Set<String> menuPerms = new LinkedHashSet<>();
+        for (int i = 0; i < MENU_PERMS / 5; i++)
+        {
+            for (String action : new String[] { "list", "query", "add", "edit", "remove" })
+            {
+                menuPerms.add("system:module" + i + ":" + action);
+            }
+        }
+        Set<String> userPerms = new HashSet<>();
+        for (String permission : menuPerms)
+        {
+            if (userPerms.size() < USER_PERMS && permission.compareTo("system:module3") > 0)
+            {
+                userPerms.add(permission);
+            }
+        }
+        userPerms.add(PERMISSION);
+
+        ISysMenuService menuService = (ISysMenuService) Proxy.newProxyInstance(ISysMenuService.class.getClassLoader(),
+                new Class<?>[] { ISysMenuService.class }, (proxy, method, args) -> "selectMenuPerms".equals(method.getName()) ? menuPerms : null);
+        PermissionIndex permissionIndex = new PermissionIndex();
+        Benchmarks.setField(permissionIndex, "menuService", menuService);
+        permissionIndex.init();
+        permissionService = new PermissionService();
+        Benchmarks.setField(permissionService, "permissionIndex", permissionIndex);
+
+        LoginUser loginUser = new LoginUser(new SysUser(), userPerms);
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(loginUser, null, null));
+        RequestContextHolder.setRequestAttributes(new Benchmarks.MapRequestAttributes());
+    }
+
+    @Benchmark
+    public boolean hasPermi()
+    {
+        return permissionService.hasPermi(PERMISSION);
+    }
+
+    @Benchmark
+    public boolean hasPermiLegacy()
+    {
+        return legacyHasPermi(PERMISSION);
+    }
+
+    @Benchmark
+    public boolean hasAnyPermi()
+    {
+        return permissionService.hasAnyPermi(ANY_PERMISSIONS);
+    }
+
+    @Benchmark
+    public boolean hasAnyPermiLegacy()
+    {
+        return legacyHasAnyPermi(ANY_PERMISSIONS);
+    }
+
+    /**
+     * 原 PermissionService.hasPermi 实现
+     */
+    private static boolean legacyHasPermi(String permission)
+    {
+        if (StringUtils.isEmpty(permission))
+        {
+            return false;
+        }
+        LoginUser loginUser = SecurityUtils.getLoginUser();
+        if (StringUtils.isNull(loginUser) || loginUser.getPermissions().isEmpty())
+        {
+            return false;
+        }
+        PermissionContextHolder.setContext(permission);
+        return legacyHasPermissions(loginUser.getPermissions(), permission);
+    }
+
+    /**
+     * 原 PermissionService.hasAnyPermi 实现
+     */
+    private static boolean legacyHasAnyPermi(String permissions)
+    {
+        if (StringUtils.isEmpty(permissions))
+        {
+            return false;
+        }
+        LoginUser loginUser = SecurityUtils.getLoginUser();
+        if (StringUtils.isNull(loginUser) || loginUser.getPermissions().isEmpty())
+        {
+            return false;
+        }
+        PermissionContextHolder.setContext(permissions);
+        Set<String> authorities = loginUser.getPermissions();
+        for (String permission : permissions.split(Constants.PERMISSION_DELIMITER))
+        {
+            if (permission != null && legacyHasPermissions(authorities, permission))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean legacyHasPermissions(Set<String> permissions, String permission)
+    {
+        return permissions.contains(Constants.ALL_PERMISSION) || permissions.contains(StringUtils.trim(permission));
+    }
+}
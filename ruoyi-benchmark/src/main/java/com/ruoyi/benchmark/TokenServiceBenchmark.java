@@ -0,0 +1,77 @@
+package com.ruoyi.benchmark;
+
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.ReflectionUtils;
+import com.ruoyi.common.constant.Constants;
+import com.ruoyi.common.utils.uuid.IdUtils;
+import com.ruoyi.framework.web.service.TokenService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+
+/**
+ * 令牌解析基准测试
+ *
+ * uncached 为原实现（每次按密钥新建解析器并验签），cached 为 TokenService 的已验签令牌缓存路径。
+ *
+ * @author ruoyi
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenServiceBenchmark
+{
+    private static final String SECRET = "abcdefghijklmnopqrstuvwxyz";
+
+    private TokenService tokenService;
+
+    private Method getClaims;
+
+    private String token;
+
+    @Setup
+    public void setup()
+    {
+        tokenService = new TokenService();
+        Benchmarks.setField(tokenService, "secret", SECRET);
+        Benchmarks.setField(tokenService, "expireTime", 30);
+        Benchmarks.setField(tokenService, "verifiedMaximumSize", 10000L);
+        tokenService.init();
+        getClaims = ReflectionUtils.findMethod(TokenService.class, "getClaims", String.class);
+        ReflectionUtils.makeAccessible(getClaims);
+
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(Constants.LOGIN_USER_KEY, IdUtils.fastUUID());
+        token = Jwts.builder().setClaims(claims).signWith(SignatureAlgorithm.HS512, SECRET).compact();
+    }
+
+    @Benchmark
+    public Object uncached()
+    {
+        Claims claims = Jwts.parser().setSigningKey(SECRET).parseClaimsJws(token).getBody();
+        return claims.get(Constants.LOGIN_USER_KEY);
+    }
+
+    @Benchmark
+    public Object cached()
+    {
+        Claims claims = (Claims) ReflectionUtils.invokeMethod(getClaims, tokenService, token);
+        return claims.get(Constants.LOGIN_USER_KEY);
+    }
+}
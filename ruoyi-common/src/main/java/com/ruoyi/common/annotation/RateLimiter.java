@@ -6,6 +6,7 @@ import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 import com.ruoyi.common.constant.CacheConstants;
+import com.ruoyi.common.enums.LimitAlgorithm;
 import com.ruoyi.common.enums.LimitType;
 
 /**
@@ -37,4 +38,9 @@ public @interface RateLimiter
      * 限流类型
      */
     public LimitType limitType() default LimitType.DEFAULT;
+
+    /**
+     * 限流算法
+     */
+    public LimitAlgorithm algorithm() default LimitAlgorithm.FIXED_WINDOW;
 }
@@ -30,6 +30,9 @@ public class RuoYiConfig
     /** 验证码类型 */
     private static String captchaType;
 
+    /** 离线IP地址库文件路径 */
+    private static String ipDbPath;
+
     public String getName()
     {
         return name;
@@ -88,6 +91,16 @@ public class RuoYiConfig
         RuoYiConfig.captchaType = captchaType;
     }
 
+    public static String getIpDbPath()
+    {
+        return ipDbPath;
+    }
+
+    public void setIpDbPath(String ipDbPath)
+    {
+        RuoYiConfig.ipDbPath = ipDbPath;
+    }
+
     /**
      * 获取导入上传路径
      */
@@ -119,4 +132,12 @@ public class RuoYiConfig
     {
         return getProfile() + "/upload";
     }
+
+    /**
+     * 获取日志归档路径
+     */
+    public static String getArchivePath()
+    {
+        return getProfile() + "/archive";
+    }
 }
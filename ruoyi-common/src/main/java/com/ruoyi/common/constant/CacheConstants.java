@@ -12,6 +12,41 @@ public class CacheConstants
      */
     public static final String LOGIN_TOKEN_KEY = "login_tokens:";
 
+    /**
+     * 登录用户续期后的过期时间 redis key
+     */
+    public static final String LOGIN_TOKEN_EXPIRE_KEY = "login_token_expire:";
+
+    /**
+     * 登录用户共享权限集合 redis key
+     */
+    public static final String LOGIN_PERMISSIONS_KEY = "login_permissions:";
+
+    /**
+     * 在线会话索引（按过期时间） redis key
+     */
+    public static final String LOGIN_INDEX_EXPIRE_KEY = "login_index:expire";
+
+    /**
+     * 在线会话索引（按用户名称） redis key
+     */
+    public static final String LOGIN_INDEX_USER_KEY = "login_index:user:";
+
+    /**
+     * 在线会话索引（按登录地址） redis key
+     */
+    public static final String LOGIN_INDEX_IP_KEY = "login_index:ip:";
+
+    /**
+     * 无状态令牌吊销列表 redis key
+     */
+    public static final String LOGIN_REVOKED_KEY = "login_state:revoked";
+
+    /**
+     * 无状态令牌会话已变更列表 redis key
+     */
+    public static final String LOGIN_CHANGED_KEY = "login_state:changed";
+
     /**
      * 验证码 redis key
      */
@@ -27,6 +62,11 @@ public class CacheConstants
      */
     public static final String SYS_DICT_KEY = "sys_dict:";
 
+    /**
+     * 角色菜单权限版本号 redis key
+     */
+    public static final String SYS_PERMISSION_VERSION_KEY = "sys_permission:version";
+
     /**
      * 防重提交 redis key
      */
@@ -41,4 +81,34 @@ public class CacheConstants
      * 登录账户密码错误次数 redis key
      */
     public static final String PWD_ERR_CNT_KEY = "pwd_err_cnt:";
+
+    /**
+     * 缓存数据版本号 redis key
+     */
+    public static final String CACHE_VERSION_KEY = "cache_version:";
+
+    /**
+     * 缓存预热锁 redis key
+     */
+    public static final String CACHE_WARMUP_LOCK_KEY = "cache_warmup_lock:";
+
+    /**
+     * 登录用户变更通知 redis channel
+     */
+    public static final String LOGIN_TOKEN_CHANNEL = "channel:login_tokens";
+
+    /**
+     * 角色菜单权限变更通知 redis channel
+     */
+    public static final String SYS_PERMISSION_CHANNEL = "channel:sys_permission";
+
+    /**
+     * 字典变更通知 redis channel
+     */
+    public static final String SYS_DICT_CHANNEL = "channel:sys_dict";
+
+    /**
+     * 参数配置变更通知 redis channel
+     */
+    public static final String SYS_CONFIG_CHANNEL = "channel:sys_config";
 }
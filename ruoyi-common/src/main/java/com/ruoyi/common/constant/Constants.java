@@ -120,6 +120,16 @@ public class Constants
      */
     public static final String JWT_USERNAME = Claims.SUBJECT;
 
+    /**
+     * 部门ID
+     */
+    public static final String JWT_DEPTID = "deptid";
+
+    /**
+     * 权限集合版本（权限集合摘要）
+     */
+    public static final String JWT_PERMISSIONS = "perms";
+
     /**
      * 用户头像
      */
@@ -1,8 +1,13 @@
 package com.ruoyi.common.core.controller;
 
 import java.beans.PropertyEditorSupport;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.web.bind.WebDataBinder;
@@ -11,6 +16,7 @@ import com.github.pagehelper.PageHelper;
 import com.github.pagehelper.PageInfo;
 import com.ruoyi.common.constant.HttpStatus;
 import com.ruoyi.common.core.domain.AjaxResult;
+import com.ruoyi.common.core.domain.BaseEntity;
 import com.ruoyi.common.core.domain.model.LoginUser;
 import com.ruoyi.common.core.page.PageDomain;
 import com.ruoyi.common.core.page.TableDataInfo;
@@ -18,6 +24,7 @@ import com.ruoyi.common.core.page.TableSupport;
 import com.ruoyi.common.utils.DateUtils;
 import com.ruoyi.common.utils.PageUtils;
 import com.ruoyi.common.utils.SecurityUtils;
+import com.ruoyi.common.utils.ServletUtils;
 import com.ruoyi.common.utils.StringUtils;
 import com.ruoyi.common.utils.sql.SqlUtil;
 
@@ -90,6 +97,62 @@ public class BaseController
         return rspData;
     }
 
+    /**
+     * 请求是否使用游标分页（请求参数包含 cursor）
+     */
+    protected boolean isKeysetPage()
+    {
+        return TableSupport.buildPageRequest().isKeyset();
+    }
+
+    /**
+     * 游标分页查询，按ID倒序取下一页，总记录数为缓存的近似值
+     * 
+     * @param query 查询对象（查询语句需支持 params.cursorId 条件并按ID倒序）
+     * @param select 查询
+     * @param idOf 获取记录ID
+     * @return 分页数据
+     */
+    protected <T> TableDataInfo getKeysetDataTable(BaseEntity query, Supplier<List<T>> select, Function<T, Long> idOf)
+    {
+        PageDomain pageDomain = TableSupport.buildPageRequest();
+        int pageSize = pageDomain.getPageSize() > 0 ? pageDomain.getPageSize() : 10;
+        query.getParams().put(PageUtils.KEYSET, Boolean.TRUE);
+        long total = PageUtils.cachedCount(getCountKey(), select::get);
+        Long cursorId = PageUtils.decodeCursor(pageDomain.getCursor());
+        if (cursorId != null)
+        {
+            query.getParams().put(PageUtils.CURSOR_ID, cursorId);
+        }
+        PageHelper.startPage(1, pageSize, false);
+        List<T> list = select.get();
+        TableDataInfo rspData = getDataTable(list);
+        rspData.setTotal(total);
+        if (list.size() >= pageSize)
+        {
+            rspData.setNextCursor(PageUtils.encodeCursor(idOf.apply(list.get(list.size() - 1))));
+        }
+        return rspData;
+    }
+
+    /**
+     * 总记录数缓存的键：当前用户、请求地址与除分页参数外的请求参数
+     */
+    private String getCountKey()
+    {
+        Map<String, String[]> params = new TreeMap<>(ServletUtils.getRequest().getParameterMap());
+        params.remove(TableSupport.CURSOR);
+        params.remove(TableSupport.PAGE_NUM);
+        params.remove(TableSupport.PAGE_SIZE);
+        StringBuilder key = new StringBuilder();
+        key.append(getUserId()).append(':').append(ServletUtils.getRequest().getRequestURI());
+        for (Map.Entry<String, String[]> entry : params.entrySet())
+        {
+            key.append('&').append(entry.getKey()).append('=').append(Arrays.toString(entry.getValue()));
+        }
+        return key.toString();
+    }
+
     /**
      * 返回成功
      */
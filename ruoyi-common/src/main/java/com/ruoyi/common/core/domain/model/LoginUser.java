@@ -4,6 +4,7 @@ import com.alibaba.fastjson2.annotation.JSONField;
 import com.ruoyi.common.core.domain.entity.SysUser;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Set;
 
@@ -66,6 +67,16 @@ public class LoginUser implements UserDetails
      */
     private Set<String> permissions;
 
+    /**
+     * 权限位图（由权限列表生成，不序列化）
+     */
+    private transient BitSet permissionBits;
+
+    /**
+     * 权限版本号
+     */
+    private Long permissionVersion;
+
     /**
      * 用户信息
      */
@@ -246,6 +257,28 @@ public class LoginUser implements UserDetails
     public void setPermissions(Set<String> permissions)
     {
         this.permissions = permissions;
+        this.permissionBits = null;
+    }
+
+    public Long getPermissionVersion()
+    {
+        return permissionVersion;
+    }
+
+    public void setPermissionVersion(Long permissionVersion)
+    {
+        this.permissionVersion = permissionVersion;
+    }
+
+    @JSONField(serialize = false)
+    public BitSet getPermissionBits()
+    {
+        return permissionBits;
+    }
+
+    public void setPermissionBits(BitSet permissionBits)
+    {
+        this.permissionBits = permissionBits;
     }
 
     public SysUser getUser()
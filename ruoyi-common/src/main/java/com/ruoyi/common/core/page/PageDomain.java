@@ -24,6 +24,9 @@ public class PageDomain
     /** 分页参数合理化 */
     private Boolean reasonable = true;
 
+    /** 游标分页的游标（为空字符串时表示第一页，为null时使用普通分页） */
+    private String cursor;
+
     public String getOrderBy()
     {
         if (StringUtils.isEmpty(orderByColumn))
@@ -98,4 +101,22 @@ public class PageDomain
     {
         this.reasonable = reasonable;
     }
+
+    public String getCursor()
+    {
+        return cursor;
+    }
+
+    public void setCursor(String cursor)
+    {
+        this.cursor = cursor;
+    }
+
+    /**
+     * 是否使用游标分页
+     */
+    public boolean isKeyset()
+    {
+        return cursor != null;
+    }
 }
@@ -24,6 +24,9 @@ public class TableDataInfo implements Serializable
     /** 消息内容 */
     private String msg;
 
+    /** 游标分页的下一页游标，没有下一页时为空 */
+    private String nextCursor;
+
     /**
      * 表格数据对象
      */
@@ -82,4 +85,14 @@ public class TableDataInfo implements Serializable
     {
         this.msg = msg;
     }
+
+    public String getNextCursor()
+    {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor)
+    {
+        this.nextCursor = nextCursor;
+    }
 }
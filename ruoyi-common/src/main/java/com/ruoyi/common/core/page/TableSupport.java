@@ -35,6 +35,11 @@ public class TableSupport
      */
     public static final String REASONABLE = "reasonable";
 
+    /**
+     * 游标分页的游标（传入该参数时使用游标分页，第一页传空值）
+     */
+    public static final String CURSOR = "cursor";
+
     /**
      * 封装分页对象
      */
@@ -46,6 +51,7 @@ public class TableSupport
         pageDomain.setOrderByColumn(ServletUtils.getParameter(ORDER_BY_COLUMN));
         pageDomain.setIsAsc(ServletUtils.getParameter(IS_ASC));
         pageDomain.setReasonable(ServletUtils.getParameterToBool(REASONABLE));
+        pageDomain.setCursor(ServletUtils.getParameter(CURSOR));
         return pageDomain;
     }
 
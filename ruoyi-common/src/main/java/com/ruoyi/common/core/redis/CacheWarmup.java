@@ -0,0 +1,189 @@
+package com.ruoyi.common.core.redis;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import com.ruoyi.common.constant.CacheConstants;
+import com.ruoyi.common.utils.StringUtils;
+
+/**
+ * 启动缓存预热
+ *
+ * 每类缓存在redis中记录加载时数据库的版本号（由表的记录数与最大创建、修改时间组成），
+ * 节点启动时版本号一致且缓存键存在则跳过重新加载；否则由抢到锁的一个节点在后台重新加载，完成后写入新版本号，
+ * 其他节点定时检查，直到版本号一致或锁释放后自行加载。
+ *
+ * @author ruoyi
+ */
+@Component
+public class CacheWarmup
+{
+    private static final Logger log = LoggerFactory.getLogger(CacheWarmup.class);
+
+    /**
+     * 预热锁超时时间（分钟），加载节点异常退出时锁自动失效
+     */
+    private static final long LOCK_TIMEOUT = 5;
+
+    /**
+     * 等待其他节点加载时的检查间隔（秒）
+     */
+    private static final long WAIT_INTERVAL = 2;
+
+    @Autowired
+    private RedisCache redisCache;
+
+    @Autowired
+    private ThreadPoolTaskExecutor threadPoolTaskExecutor;
+
+    @Autowired
+    private ScheduledExecutorService scheduledExecutorService;
+
+    /**
+     * redis中的缓存是否与数据库版本一致
+     *
+     * @param name 缓存名称
+     * @param version 数据库当前版本号
+     * @return 结果
+     */
+    public boolean isCurrent(String name, String version)
+    {
+        return StringUtils.isNotEmpty(version) && Objects.equals(version, redisCache.getCacheObject(CacheConstants.CACHE_VERSION_KEY + name));
+    }
+
+    /**
+     * redis中的缓存是否与数据库版本一致，且缓存键仍然存在（缓存被清空后版本号可能仍在）
+     *
+     * @param name 缓存名称
+     * @param version 数据库当前版本号
+     * @param keyPrefix 缓存键前缀
+     * @return 结果
+     */
+    public boolean isCurrent(String name, String version, String keyPrefix)
+    {
+        return isCurrent(name, version) && redisCache.hasKeys(keyPrefix + "*");
+    }
+
+    /**
+     * 记录缓存已按指定版本加载
+     *
+     * @param name 缓存名称
+     * @param version 加载前读取的数据库版本号
+     */
+    public void markLoaded(String name, String version)
+    {
+        if (StringUtils.isNotEmpty(version))
+        {
+            redisCache.setCacheObject(CacheConstants.CACHE_VERSION_KEY + name, version);
+        }
+    }
+
+    /**
+     * 尝试获取预热锁，同一时间只有一个节点重新加载
+     *
+     * @param name 缓存名称
+     * @return 是否获取成功
+     */
+    public boolean tryLock(String name)
+    {
+        return redisCache.setCacheObjectIfAbsent(CacheConstants.CACHE_WARMUP_LOCK_KEY + name, RedisCache.NODE_ID, LOCK_TIMEOUT, TimeUnit.MINUTES);
+    }
+
+    /**
+     * 释放预热锁，只删除本节点持有的锁（加载超时后锁可能已被其他节点获取）
+     *
+     * @param name 缓存名称
+     */
+    public void unlock(String name)
+    {
+        redisCache.deleteObjectIfEquals(CacheConstants.CACHE_WARMUP_LOCK_KEY + name, RedisCache.NODE_ID);
+    }
+
+    /**
+     * 版本不一致或缓存键不存在时在后台重新加载缓存
+     *
+     * @param name 缓存名称
+     * @param version 加载前读取的数据库版本号
+     * @param keyPrefix 缓存键前缀
+     * @param loader 加载方法
+     * @return 缓存可用时完成：无需加载时立即完成，否则在本节点加载结束或其他节点加载出一致版本后完成，加载失败时异常完成
+     */
+    public CompletableFuture<Void> warmup(String name, String version, String keyPrefix, Runnable loader)
+    {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        if (isCurrent(name, version, keyPrefix))
+        {
+            log.info("缓存[{}]版本一致，跳过加载", name);
+            future.complete(null);
+        }
+        else if (tryLock(name))
+        {
+            load(name, version, loader, future);
+        }
+        else
+        {
+            log.info("缓存[{}]正在由其他节点加载，等待加载完成", name);
+            await(name, version, keyPrefix, loader, future);
+        }
+        return future;
+    }
+
+    /**
+     * 定时检查其他节点的加载结果，锁释放后版本仍不一致时由本节点加载
+     */
+    private void await(String name, String version, String keyPrefix, Runnable loader, CompletableFuture<Void> future)
+    {
+        scheduledExecutorService.schedule(() -> {
+            try
+            {
+                if (isCurrent(name, version, keyPrefix))
+                {
+                    log.info("缓存[{}]已由其他节点加载完成", name);
+                    future.complete(null);
+                }
+                else if (tryLock(name))
+                {
+                    load(name, version, loader, future);
+                }
+                else
+                {
+                    await(name, version, keyPrefix, loader, future);
+                }
+            }
+            catch (Exception e)
+            {
+                log.error("缓存[{}]等待加载异常", name, e);
+                future.completeExceptionally(e);
+            }
+        }, WAIT_INTERVAL, TimeUnit.SECONDS);
+    }
+
+    private void load(String name, String version, Runnable loader, CompletableFuture<Void> future)
+    {
+        threadPoolTaskExecutor.execute(() -> {
+            try
+            {
+                long start = System.currentTimeMillis();
+                loader.run();
+                markLoaded(name, version);
+                log.info("缓存[{}]加载完成，耗时{}ms", name, System.currentTimeMillis() - start);
+                future.complete(null);
+            }
+            catch (Exception e)
+            {
+                log.error("缓存[{}]加载异常", name, e);
+                future.completeExceptionally(e);
+            }
+            finally
+            {
+                unlock(name);
+            }
+        });
+    }
+}
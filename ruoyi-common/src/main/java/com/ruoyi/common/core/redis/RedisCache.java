@@ -1,17 +1,37 @@
 package com.ruoyi.common.core.redis;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.RedisStringCommands.SetOption;
 import org.springframework.data.redis.core.BoundSetOperations;
+import org.springframework.data.redis.core.Cursor;
 import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
 import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.stereotype.Component;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ruoyi.common.utils.uuid.IdUtils;
 
 /**
  * spring redis 工具类
@@ -22,9 +42,47 @@ import org.springframework.stereotype.Component;
 @Component
 public class RedisCache
 {
+    /**
+     * 当前节点标识（用于忽略本节点发出的广播消息）
+     */
+    public static final String NODE_ID = IdUtils.fastSimpleUUID();
+
+    /**
+     * SCAN 每批遍历的键数量
+     */
+    public static final int SCAN_COUNT = 1000;
+
+    /**
+     * 批量命令（MGET、MSET、UNLINK）单条包含的键数量
+     */
+    private static final int MULTI_BATCH_SIZE = 500;
+
+    /**
+     * 访问计数最多跟踪的键数量（超出后淘汰访问较少的键）
+     */
+    private static final int ACCESS_COUNT_KEYS = 10000;
+
+    /**
+     * 值相等时删除键（锁只能由持有者释放）
+     */
+    private static final RedisScript<Long> DELETE_IF_EQUALS_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) end return 0", Long.class);
+
+    /**
+     * 计数器小于指定值时更新为该值，返回更新后的值（计数器只增不减）
+     */
+    private static final RedisScript<Long> SET_IF_GREATER_SCRIPT = new DefaultRedisScript<>(
+            "local v = tonumber(redis.call('get', KEYS[1]) or '0') " +
+            "if v < tonumber(ARGV[1]) then redis.call('set', KEYS[1], ARGV[1]) return tonumber(ARGV[1]) end return v", Long.class);
+
     @Autowired
     public RedisTemplate redisTemplate;
 
+    /**
+     * 本节点通过本类访问各键的次数，用于热点键分析
+     */
+    private final Cache<String, LongAdder> accessCounts = Caffeine.newBuilder().maximumSize(ACCESS_COUNT_KEYS).build();
+
     /**
      * 缓存基本的对象，Integer、String、实体类等
      *
@@ -33,6 +91,7 @@ public class RedisCache
      */
     public <T> void setCacheObject(final String key, final T value)
     {
+        recordAccess(key);
         redisTemplate.opsForValue().set(key, value);
     }
 
@@ -46,9 +105,25 @@ public class RedisCache
      */
     public <T> void setCacheObject(final String key, final T value, final Integer timeout, final TimeUnit timeUnit)
     {
+        recordAccess(key);
         redisTemplate.opsForValue().set(key, value, timeout, timeUnit);
     }
 
+    /**
+     * 键不存在时缓存对象（SET NX PX，原子操作）
+     *
+     * @param key 缓存的键值
+     * @param value 缓存的值
+     * @param timeout 时间
+     * @param timeUnit 时间颗粒度
+     * @return true=设置成功；false=键已存在
+     */
+    public <T> boolean setCacheObjectIfAbsent(final String key, final T value, final long timeout, final TimeUnit timeUnit)
+    {
+        recordAccess(key);
+        return Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(key, value, timeout, timeUnit));
+    }
+
     /**
      * 设置有效时间
      *
@@ -85,6 +160,33 @@ public class RedisCache
         return redisTemplate.getExpire(key);
     }
 
+    /**
+     * 计数器自增
+     *
+     * @param key Redis键
+     * @return 自增后的值
+     */
+    public long increment(final String key)
+    {
+        recordAccess(key);
+        return redisTemplate.opsForValue().increment(key);
+    }
+
+    /**
+     * 计数器小于指定值时更新为该值（原子操作）
+     *
+     * @param key Redis键
+     * @param value 指定值
+     * @return 更新后的值，不小于指定值
+     */
+    public long setIfGreater(final String key, final long value)
+    {
+        recordAccess(key);
+        Long result = (Long) redisTemplate.execute(SET_IF_GREATER_SCRIPT, RedisSerializer.string(), RedisSerializer.string(),
+                Collections.singletonList(key), String.valueOf(value));
+        return result != null ? result : value;
+    }
+
     /**
      * 判断 key是否存在
      *
@@ -93,6 +195,7 @@ public class RedisCache
      */
     public Boolean hasKey(String key)
     {
+        recordAccess(key);
         return redisTemplate.hasKey(key);
     }
 
@@ -104,10 +207,166 @@ public class RedisCache
      */
     public <T> T getCacheObject(final String key)
     {
+        recordAccess(key);
         ValueOperations<String, T> operation = redisTemplate.opsForValue();
         return operation.get(key);
     }
 
+    /**
+     * 获得多个缓存的基本对象，键较多时按批拆分为多条MGET并通过管道一次发送
+     *
+     * @param keys 缓存键值集合
+     * @return 与键顺序一致的数据列表，不存在的键对应null
+     */
+    public <T> List<T> multiGet(final Collection<String> keys)
+    {
+        if (keys == null || keys.isEmpty())
+        {
+            return new ArrayList<>();
+        }
+        for (String key : keys)
+        {
+            recordAccess(key);
+        }
+        if (keys.size() <= MULTI_BATCH_SIZE)
+        {
+            ValueOperations<String, T> operation = redisTemplate.opsForValue();
+            return operation.multiGet(keys);
+        }
+        List<String> list = toList(keys);
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (int i = 0; i < list.size(); i += MULTI_BATCH_SIZE)
+            {
+                connection.stringCommands().mGet(rawKeys(list.subList(i, Math.min(list.size(), i + MULTI_BATCH_SIZE))));
+            }
+            return null;
+        });
+        List<T> values = new ArrayList<>(list.size());
+        for (Object result : results)
+        {
+            values.addAll((List<T>) result);
+        }
+        return values;
+    }
+
+    /**
+     * 批量缓存基本对象，按批拆分为多条MSET并通过管道一次发送
+     *
+     * @param dataMap 键与值
+     */
+    public <T> void multiSet(final Map<String, T> dataMap)
+    {
+        if (dataMap == null || dataMap.isEmpty())
+        {
+            return;
+        }
+        RedisSerializer<String> keySerializer = redisTemplate.getKeySerializer();
+        RedisSerializer<Object> valueSerializer = redisTemplate.getValueSerializer();
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            Map<byte[], byte[]> batch = new LinkedHashMap<>();
+            for (Map.Entry<String, T> entry : dataMap.entrySet())
+            {
+                batch.put(keySerializer.serialize(entry.getKey()), valueSerializer.serialize(entry.getValue()));
+                if (batch.size() >= MULTI_BATCH_SIZE)
+                {
+                    connection.stringCommands().mSet(batch);
+                    batch = new LinkedHashMap<>();
+                }
+            }
+            if (!batch.isEmpty())
+            {
+                connection.stringCommands().mSet(batch);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * 批量缓存基本对象并为每个键设置有效期（管道内逐个SET PX）
+     *
+     * @param dataMap 键与值
+     * @param timeout 时间
+     * @param timeUnit 时间颗粒度
+     */
+    public <T> void multiSet(final Map<String, T> dataMap, final long timeout, final TimeUnit timeUnit)
+    {
+        if (dataMap == null || dataMap.isEmpty())
+        {
+            return;
+        }
+        RedisSerializer<String> keySerializer = redisTemplate.getKeySerializer();
+        RedisSerializer<Object> valueSerializer = redisTemplate.getValueSerializer();
+        Expiration expiration = Expiration.from(timeout, timeUnit);
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (Map.Entry<String, T> entry : dataMap.entrySet())
+            {
+                connection.stringCommands().set(keySerializer.serialize(entry.getKey()), valueSerializer.serialize(entry.getValue()),
+                        expiration, SetOption.upsert());
+            }
+            return null;
+        });
+    }
+
+    /**
+     * 批量删除对象（管道分批UNLINK，不阻塞redis）
+     *
+     * @param keys 键集合
+     * @return 删除的数量
+     */
+    public long multiDelete(final Collection<String> keys)
+    {
+        return unlink(keys);
+    }
+
+    /**
+     * 在指定线程池中异步执行 {@link #multiGet(Collection)}
+     *
+     * @param keys 缓存键值集合
+     * @param executor 线程池
+     * @return 与键顺序一致的数据列表
+     */
+    public <T> CompletableFuture<List<T>> multiGetAsync(final Collection<String> keys, final Executor executor)
+    {
+        return CompletableFuture.supplyAsync(() -> multiGet(keys), executor);
+    }
+
+    /**
+     * 在指定线程池中异步执行 {@link #multiSet(Map)}
+     *
+     * @param dataMap 键与值
+     * @param executor 线程池
+     */
+    public <T> CompletableFuture<Void> multiSetAsync(final Map<String, T> dataMap, final Executor executor)
+    {
+        return CompletableFuture.runAsync(() -> multiSet(dataMap), executor);
+    }
+
+    /**
+     * 在指定线程池中异步执行 {@link #multiSet(Map, long, TimeUnit)}
+     *
+     * @param dataMap 键与值
+     * @param timeout 时间
+     * @param timeUnit 时间颗粒度
+     * @param executor 线程池
+     */
+    public <T> CompletableFuture<Void> multiSetAsync(final Map<String, T> dataMap, final long timeout, final TimeUnit timeUnit,
+            final Executor executor)
+    {
+        return CompletableFuture.runAsync(() -> multiSet(dataMap, timeout, timeUnit), executor);
+    }
+
+    /**
+     * 在指定线程池中异步执行 {@link #multiDelete(Collection)}
+     *
+     * @param keys 键集合
+     * @param executor 线程池
+     * @return 删除的数量
+     */
+    public CompletableFuture<Long> multiDeleteAsync(final Collection<String> keys, final Executor executor)
+    {
+        return CompletableFuture.supplyAsync(() -> multiDelete(keys), executor);
+    }
+
     /**
      * 删除单个对象
      *
@@ -118,6 +377,19 @@ public class RedisCache
         return redisTemplate.delete(key);
     }
 
+    /**
+     * 键的值等于指定值时删除（原子操作）
+     *
+     * @param key 缓存的键值
+     * @param value 期望的值
+     * @return true=删除成功；false=键不存在或值不同
+     */
+    public boolean deleteObjectIfEquals(final String key, final Object value)
+    {
+        Long result = (Long) redisTemplate.execute(DELETE_IF_EQUALS_SCRIPT, Collections.singletonList(key), value);
+        return result != null && result > 0;
+    }
+
     /**
      * 删除集合对象
      *
@@ -203,6 +475,7 @@ public class RedisCache
      */
     public <T> Map<String, T> getCacheMap(final String key)
     {
+        recordAccess(key);
         return redisTemplate.opsForHash().entries(key);
     }
 
@@ -227,6 +500,7 @@ public class RedisCache
      */
     public <T> T getCacheMapValue(final String key, final String hKey)
     {
+        recordAccess(key);
         HashOperations<String, String, T> opsForHash = redisTemplate.opsForHash();
         return opsForHash.get(key, hKey);
     }
@@ -260,9 +534,189 @@ public class RedisCache
      *
      * @param pattern 字符串前缀
      * @return 对象列表
+     * @deprecated KEYS 命令会遍历整个键空间并阻塞redis，请使用 {@link #scanKeys(String, int, Consumer)}
      */
+    @Deprecated
     public Collection<String> keys(final String pattern)
     {
         return redisTemplate.keys(pattern);
     }
+
+    /**
+     * 以游标方式（SCAN）分批遍历匹配的键，不会阻塞redis
+     *
+     * @param pattern 匹配模式
+     * @param count 每批数量（同时作为 SCAN 的 COUNT 提示）
+     * @param consumer 每批键的处理
+     */
+    public void scanKeys(final String pattern, final int count, final Consumer<List<String>> consumer)
+    {
+        int batchSize = Math.max(1, count);
+        ScanOptions options = ScanOptions.scanOptions().match(pattern).count(batchSize).build();
+        try (Cursor<String> cursor = redisTemplate.scan(options))
+        {
+            List<String> batch = new ArrayList<>(batchSize);
+            while (cursor.hasNext())
+            {
+                batch.add(cursor.next());
+                if (batch.size() >= batchSize)
+                {
+                    consumer.accept(batch);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty())
+            {
+                consumer.accept(batch);
+            }
+        }
+    }
+
+    /**
+     * 是否存在匹配的键（SCAN 找到第一个即返回）
+     *
+     * @param pattern 匹配模式
+     * @return 结果
+     */
+    public boolean hasKeys(final String pattern)
+    {
+        ScanOptions options = ScanOptions.scanOptions().match(pattern).count(SCAN_COUNT).build();
+        try (Cursor<String> cursor = redisTemplate.scan(options))
+        {
+            return cursor.hasNext();
+        }
+    }
+
+    /**
+     * 以游标方式（SCAN）获取匹配的键
+     *
+     * @param pattern 匹配模式
+     * @return 键集合
+     */
+    public Set<String> scanKeys(final String pattern)
+    {
+        Set<String> keys = new HashSet<>();
+        scanKeys(pattern, SCAN_COUNT, keys::addAll);
+        return keys;
+    }
+
+    /**
+     * 非阻塞删除（UNLINK），键较多时分批通过管道发送，由redis后台线程回收内存
+     *
+     * @param keys 键集合
+     * @return 删除的数量
+     */
+    public long unlink(final Collection<String> keys)
+    {
+        if (keys == null || keys.isEmpty())
+        {
+            return 0;
+        }
+        List<String> list = toList(keys);
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (int i = 0; i < list.size(); i += MULTI_BATCH_SIZE)
+            {
+                connection.keyCommands().unlink(rawKeys(list.subList(i, Math.min(list.size(), i + MULTI_BATCH_SIZE))));
+            }
+            return null;
+        });
+        long count = 0;
+        for (Object result : results)
+        {
+            if (result instanceof Number)
+            {
+                count += ((Number) result).longValue();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 删除匹配的全部键（SCAN 分批遍历 + UNLINK 删除）
+     *
+     * @param pattern 匹配模式
+     * @return 删除的数量
+     */
+    public long deleteByPattern(final String pattern)
+    {
+        long[] count = new long[1];
+        scanKeys(pattern, SCAN_COUNT, batch -> count[0] += unlink(batch));
+        return count[0];
+    }
+
+    /**
+     * 发布广播消息
+     *
+     * @param channel 频道
+     * @param message 消息内容
+     */
+    public void publish(final String channel, final Object message)
+    {
+        redisTemplate.convertAndSend(channel, message);
+    }
+
+    /**
+     * 解析订阅收到的广播消息
+     *
+     * @param message 订阅消息
+     * @return 消息内容
+     */
+    public <T> T getMessageBody(final Message message)
+    {
+        return (T) redisTemplate.getValueSerializer().deserialize(message.getBody());
+    }
+
+    /**
+     * 获取本节点访问次数最多的键
+     *
+     * @param top 返回数量
+     * @return 键与访问次数，按次数倒序
+     */
+    public List<Map<String, Object>> getHotKeys(final int top)
+    {
+        List<Map.Entry<String, Long>> entries = new ArrayList<>();
+        accessCounts.asMap().forEach((key, count) -> entries.add(Map.entry(key, count.sum())));
+        entries.sort(Map.Entry.<String, Long> comparingByValue().reversed());
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (Map.Entry<String, Long> entry : entries.subList(0, Math.min(Math.max(top, 0), entries.size())))
+        {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("key", entry.getKey());
+            item.put("count", entry.getValue());
+            result.add(item);
+        }
+        return result;
+    }
+
+    /**
+     * 清空访问计数
+     */
+    public void resetHotKeys()
+    {
+        accessCounts.invalidateAll();
+    }
+
+    private void recordAccess(final String key)
+    {
+        if (key != null)
+        {
+            accessCounts.get(key, k -> new LongAdder()).increment();
+        }
+    }
+
+    private List<String> toList(final Collection<String> keys)
+    {
+        return keys instanceof List ? (List<String>) keys : new ArrayList<>(keys);
+    }
+
+    private byte[][] rawKeys(final List<String> keys)
+    {
+        RedisSerializer<String> keySerializer = redisTemplate.getKeySerializer();
+        byte[][] rawKeys = new byte[keys.size()][];
+        for (int i = 0; i < rawKeys.length; i++)
+        {
+            rawKeys[i] = keySerializer.serialize(keys.get(i));
+        }
+        return rawKeys;
+    }
 }
@@ -0,0 +1,24 @@
+package com.ruoyi.common.enums;
+
+/**
+ * 限流算法
+ *
+ * @author ruoyi
+ */
+public enum LimitAlgorithm
+{
+    /**
+     * 固定窗口：每个时间窗口内最多 count 次
+     */
+    FIXED_WINDOW,
+
+    /**
+     * 令牌桶：容量 count，每 time 秒补满，允许短时突发
+     */
+    TOKEN_BUCKET,
+
+    /**
+     * 滑动窗口：按前一窗口的剩余占比加权估算最近 time 秒内的次数
+     */
+    SLIDING_WINDOW
+}
@@ -1,14 +1,29 @@
 package com.ruoyi.common.filter;
 
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import com.alibaba.fastjson2.JSONFactory;
+import com.alibaba.fastjson2.JSONWriter;
 import com.alibaba.fastjson2.filter.SimplePropertyPreFilter;
+import com.alibaba.fastjson2.filter.ValueFilter;
+import com.ruoyi.common.utils.StringUtils;
 
 /**
  * 排除JSON敏感属性
  * 
+ * 设置长度上限后，超长字符串在写出前截断，集合与数组只保留能放进上限的元素，避免先完整序列化再截取。
+ * 
  * @author ruoyi
  */
-public class PropertyPreExcludeFilter extends SimplePropertyPreFilter
+public class PropertyPreExcludeFilter extends SimplePropertyPreFilter implements ValueFilter
 {
+    /**
+     * 输出长度上限，达到后停止序列化（0表示不限制），需配合本类的 toJSONString 使用
+     */
+    private int maxLength;
+
     public PropertyPreExcludeFilter()
     {
     }
@@ -21,4 +36,209 @@ public class PropertyPreExcludeFilter extends SimplePropertyPreFilter
         }
         return this;
     }
+
+    public PropertyPreExcludeFilter setMaxLength(int maxLength)
+    {
+        this.maxLength = maxLength;
+        return this;
+    }
+
+    @Override
+    public boolean process(JSONWriter writer, Object source, String name)
+    {
+        // 每输出一个属性前检查长度，超出后中断序列化，不再生成后续内容
+        if (maxLength > 0 && writer.size() >= maxLength)
+        {
+            throw LengthExceededException.INSTANCE;
+        }
+        return super.process(writer, source, name);
+    }
+
+    @Override
+    public Object apply(Object object, String name, Object value)
+    {
+        return maxLength > 0 ? limit(value, maxLength) : value;
+    }
+
+    /**
+     * 将值限制在指定长度以内：字符串截断，集合与数组按估算长度截取前若干元素（元素逐层限制）
+     * 
+     * @param value 值
+     * @param limit 长度上限
+     * @return 限制后的值，未超出时返回原值
+     */
+    private static Object limit(Object value, int limit)
+    {
+        if (isScalar(value))
+        {
+            return value;
+        }
+        if (value instanceof CharSequence)
+        {
+            CharSequence chars = (CharSequence) value;
+            return chars.length() > limit ? chars.subSequence(0, limit).toString() : value;
+        }
+        if (value instanceof Collection)
+        {
+            Collection<?> collection = (Collection<?>) value;
+            // 每个元素至少输出一个字符和一个分隔符
+            if (collection.size() * 2 <= limit && !hasVariableItem(collection))
+            {
+                return value;
+            }
+            List<Object> items = new ArrayList<>(Math.min(collection.size(), (limit + 1) / 2));
+            int remaining = limit;
+            for (Object item : collection)
+            {
+                if (remaining <= 0)
+                {
+                    break;
+                }
+                remaining = addItem(items, item, remaining);
+            }
+            return items;
+        }
+        if (value instanceof Object[])
+        {
+            Object[] array = (Object[]) value;
+            List<Object> items = new ArrayList<>(Math.min(array.length, (limit + 1) / 2));
+            int remaining = limit;
+            for (int i = 0; i < array.length && remaining > 0; i++)
+            {
+                remaining = addItem(items, array[i], remaining);
+            }
+            return items;
+        }
+        if (value != null && value.getClass().isArray())
+        {
+            // 基本类型数组每个元素至少输出一个字符和一个分隔符，直接复制前若干元素
+            int length = Array.getLength(value);
+            int count = (limit + 1) / 2;
+            if (length <= count)
+            {
+                return value;
+            }
+            Object array = Array.newInstance(value.getClass().getComponentType(), count);
+            System.arraycopy(value, 0, array, 0, count);
+            return array;
+        }
+        return value;
+    }
+
+    private static int addItem(List<Object> items, Object item, int remaining)
+    {
+        Object limited = limit(item, remaining);
+        items.add(limited);
+        return remaining - estimateLength(limited) - 1;
+    }
+
+    /**
+     * 估算值输出的最小长度
+     */
+    private static int estimateLength(Object value)
+    {
+        if (isScalar(value))
+        {
+            return 1;
+        }
+        if (value instanceof CharSequence)
+        {
+            return ((CharSequence) value).length() + 2;
+        }
+        if (value instanceof Collection)
+        {
+            int length = 2;
+            for (Object item : (Collection<?>) value)
+            {
+                length += estimateLength(item) + 1;
+            }
+            return length;
+        }
+        return 1;
+    }
+
+    private static boolean hasVariableItem(Collection<?> collection)
+    {
+        for (Object item : collection)
+        {
+            if (!isScalar(item) && (item instanceof CharSequence || item instanceof Collection || item.getClass().isArray()))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 数字、布尔等定长值无需限制（先按类判断，避免对每个元素做接口类型检查，JDK 17 下大集合的接口检查开销明显）
+     */
+    private static boolean isScalar(Object value)
+    {
+        return value == null || value instanceof Number || value instanceof Boolean || value instanceof Character || value instanceof Enum;
+    }
+
+    /**
+     * 使用当前过滤器序列化对象，设置了长度上限时结果截断到上限以内
+     * 
+     * @param object 对象
+     * @return JSON字符串
+     */
+    public String toJSONString(Object object)
+    {
+        JSONWriter.Context context = new JSONWriter.Context(JSONFactory.getDefaultObjectWriterProvider());
+        context.configFilter(this);
+        try (JSONWriter writer = JSONWriter.of(context))
+        {
+            if (object == null)
+            {
+                writer.writeNull();
+            }
+            else
+            {
+                try
+                {
+                    Object root = maxLength > 0 ? limit(object, maxLength) : object;
+                    writer.setRootObject(root);
+                    writer.getObjectWriter(root.getClass()).write(writer, root, null, null, 0);
+                }
+                catch (RuntimeException e)
+                {
+                    // 已达到长度上限时保留已输出的部分（字段序列化异常可能被包装）
+                    if (!isLengthExceeded(e))
+                    {
+                        throw e;
+                    }
+                }
+            }
+            String json = writer.toString();
+            return maxLength > 0 ? StringUtils.substring(json, 0, maxLength) : json;
+        }
+    }
+
+    private static boolean isLengthExceeded(Throwable e)
+    {
+        for (Throwable t = e; t != null; t = t.getCause())
+        {
+            if (t == LengthExceededException.INSTANCE)
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 输出达到长度上限（不记录堆栈）
+     */
+    private static class LengthExceededException extends RuntimeException
+    {
+        private static final long serialVersionUID = 1L;
+
+        private static final LengthExceededException INSTANCE = new LengthExceededException();
+
+        private LengthExceededException()
+        {
+            super("JSON length exceeded", null, false, false);
+        }
+    }
 }
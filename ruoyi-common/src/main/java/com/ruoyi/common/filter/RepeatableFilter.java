@@ -14,6 +14,8 @@ import com.ruoyi.common.utils.StringUtils;
 /**
  * Repeatable 过滤器
  * 
+ * 请求体已在前面的过滤器（如XssFilter）中缓存时不再重复读取
+ * 
  * @author ruoyi
  */
 public class RepeatableFilter implements Filter
@@ -30,7 +32,8 @@ public class RepeatableFilter implements Filter
     {
         ServletRequest requestWrapper = null;
         if (request instanceof HttpServletRequest
-                && StringUtils.startsWithIgnoreCase(request.getContentType(), MediaType.APPLICATION_JSON_VALUE))
+                && StringUtils.startsWithIgnoreCase(request.getContentType(), MediaType.APPLICATION_JSON_VALUE)
+                && RepeatedlyRequestWrapper.find(request) == null)
         {
             requestWrapper = new RepeatedlyRequestWrapper((HttpServletRequest) request, response);
         }
@@ -1,24 +1,44 @@
 package com.ruoyi.common.filter;
 
 import java.io.BufferedReader;
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import jakarta.servlet.ReadListener;
 import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletRequestWrapper;
 import jakarta.servlet.ServletResponse;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletRequestWrapper;
-import com.ruoyi.common.utils.http.HttpHelper;
 import com.ruoyi.common.constant.Constants;
 
 /**
  * 构建可重复读取inputStream的request
- * 
+ *
+ * 请求体只从原始流读取一次：已知Content-Length时直接读入等长数组，否则借用线程内复用的缓冲区读取后按实际长度复制；
+ * 过滤器链中已存在本包装时，防重复提交、XSS过滤与日志等环节通过 {@link #getCachedBody(ServletRequest)} 共用同一份数据。
+ *
  * @author ruoyi
  */
 public class RepeatedlyRequestWrapper extends HttpServletRequestWrapper
 {
+    private static final byte[] EMPTY = new byte[0];
+
+    /**
+     * 线程复用缓冲区的初始大小
+     */
+    private static final int BUFFER_SIZE = 8 * 1024;
+
+    /**
+     * 超过此大小的缓冲区用完即丢弃，不在线程内保留
+     */
+    private static final int MAX_POOLED_SIZE = 64 * 1024;
+
+    private static final ThreadLocal<byte[]> BUFFER = ThreadLocal.withInitial(() -> new byte[BUFFER_SIZE]);
+
     private final byte[] body;
 
     public RepeatedlyRequestWrapper(HttpServletRequest request, ServletResponse response) throws IOException
@@ -27,50 +47,201 @@ public class RepeatedlyRequestWrapper extends HttpServletRequestWrapper
         request.setCharacterEncoding(Constants.UTF8);
         response.setCharacterEncoding(Constants.UTF8);
 
-        body = HttpHelper.getBodyString(request).getBytes(Constants.UTF8);
+        body = readBody(request);
+    }
+
+    /**
+     * 获取请求体（只读，不要修改返回的数组）
+     */
+    public byte[] getBody()
+    {
+        return body;
+    }
+
+    /**
+     * 从过滤器链中查找已缓存的请求体
+     *
+     * @param request 请求（可以是外层包装）
+     * @return 请求体，未缓存返回null
+     */
+    public static byte[] getCachedBody(ServletRequest request)
+    {
+        RepeatedlyRequestWrapper wrapper = find(request);
+        return wrapper != null ? wrapper.body : null;
+    }
+
+    /**
+     * 从过滤器链中查找本包装
+     */
+    public static RepeatedlyRequestWrapper find(ServletRequest request)
+    {
+        while (request != null)
+        {
+            if (request instanceof RepeatedlyRequestWrapper)
+            {
+                return (RepeatedlyRequestWrapper) request;
+            }
+            if (!(request instanceof ServletRequestWrapper))
+            {
+                return null;
+            }
+            request = ((ServletRequestWrapper) request).getRequest();
+        }
+        return null;
     }
 
     @Override
     public BufferedReader getReader() throws IOException
     {
-        return new BufferedReader(new InputStreamReader(getInputStream()));
+        return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
     }
 
     @Override
     public ServletInputStream getInputStream() throws IOException
     {
-        final ByteArrayInputStream bais = new ByteArrayInputStream(body);
-        return new ServletInputStream()
+        return new CachedBodyInputStream(body);
+    }
+
+    /**
+     * 一次性读取原始请求体
+     */
+    private static byte[] readBody(ServletRequest request) throws IOException
+    {
+        long contentLength = request.getContentLengthLong();
+        try (InputStream is = request.getInputStream())
         {
-            @Override
-            public int read() throws IOException
+            if (contentLength == 0)
             {
-                return bais.read();
+                return EMPTY;
             }
-
-            @Override
-            public int available() throws IOException
+            if (contentLength > 0 && contentLength <= Integer.MAX_VALUE - 8)
             {
-                return body.length;
+                byte[] data = is.readNBytes((int) contentLength);
+                // 客户端声明的长度不可信，仍需确认流已读完
+                int next = is.read();
+                if (next < 0)
+                {
+                    return data;
+                }
+                byte[] prefix = Arrays.copyOf(data, data.length + 1);
+                prefix[data.length] = (byte) next;
+                return readRemaining(is, prefix);
             }
+            return readRemaining(is, EMPTY);
+        }
+    }
 
-            @Override
-            public boolean isFinished()
+    /**
+     * 借用线程缓冲区读取剩余内容，返回已读前缀与剩余内容拼接后的数组
+     */
+    private static byte[] readRemaining(InputStream is, byte[] prefix) throws IOException
+    {
+        byte[] buffer = BUFFER.get();
+        int size = 0;
+        if (prefix.length > 0)
+        {
+            buffer = ensureCapacity(buffer, prefix.length);
+            System.arraycopy(prefix, 0, buffer, 0, prefix.length);
+            size = prefix.length;
+        }
+        int n;
+        while (true)
+        {
+            if (size == buffer.length)
             {
-                return false;
+                buffer = ensureCapacity(buffer, size + 1);
             }
-
-            @Override
-            public boolean isReady()
+            n = is.read(buffer, size, buffer.length - size);
+            if (n < 0)
             {
-                return false;
+                break;
             }
+            size += n;
+        }
+        byte[] data = size == 0 ? EMPTY : Arrays.copyOf(buffer, size);
+        if (buffer.length <= MAX_POOLED_SIZE)
+        {
+            BUFFER.set(buffer);
+        }
+        return data;
+    }
 
-            @Override
-            public void setReadListener(ReadListener readListener)
-            {
+    private static byte[] ensureCapacity(byte[] buffer, int capacity)
+    {
+        if (buffer.length >= capacity)
+        {
+            return buffer;
+        }
+        return Arrays.copyOf(buffer, Math.max(capacity, buffer.length << 1));
+    }
+
+    /**
+     * 基于已缓存字节的输入流，支持批量读取
+     */
+    static class CachedBodyInputStream extends ServletInputStream
+    {
+        private final byte[] data;
 
+        private int position;
+
+        CachedBodyInputStream(byte[] data)
+        {
+            this.data = data;
+        }
+
+        @Override
+        public int read()
+        {
+            return position < data.length ? data[position++] & 0xff : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len)
+        {
+            if (len == 0)
+            {
+                return 0;
             }
-        };
+            if (position >= data.length)
+            {
+                return -1;
+            }
+            int n = Math.min(len, data.length - position);
+            System.arraycopy(data, position, b, off, n);
+            position += n;
+            return n;
+        }
+
+        @Override
+        public long skip(long n)
+        {
+            int skipped = (int) Math.max(0, Math.min(n, data.length - position));
+            position += skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available()
+        {
+            return data.length - position;
+        }
+
+        @Override
+        public boolean isFinished()
+        {
+            return position >= data.length;
+        }
+
+        @Override
+        public boolean isReady()
+        {
+            return true;
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener)
+        {
+
+        }
     }
 }
@@ -11,6 +11,7 @@ import jakarta.servlet.ServletRequest;
 import jakarta.servlet.ServletResponse;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.MediaType;
 import com.ruoyi.common.utils.StringUtils;
 import com.ruoyi.common.enums.HttpMethod;
 
@@ -51,7 +52,13 @@ public class XssFilter implements Filter
             chain.doFilter(request, response);
             return;
         }
-        XssHttpServletRequestWrapper xssRequest = new XssHttpServletRequestWrapper((HttpServletRequest) request);
+        // json请求先缓存请求体，后续的xss过滤与RepeatableFilter共用同一份数据
+        if (StringUtils.startsWithIgnoreCase(req.getContentType(), MediaType.APPLICATION_JSON_VALUE)
+                && RepeatedlyRequestWrapper.find(req) == null)
+        {
+            req = new RepeatedlyRequestWrapper(req, response);
+        }
+        XssHttpServletRequestWrapper xssRequest = new XssHttpServletRequestWrapper(req);
         chain.doFilter(xssRequest, response);
     }
 
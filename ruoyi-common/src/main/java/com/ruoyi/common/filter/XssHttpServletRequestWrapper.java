@@ -1,8 +1,9 @@
 package com.ruoyi.common.filter;
 
-import java.io.ByteArrayInputStream;
+import java.io.BufferedReader;
 import java.io.IOException;
-import jakarta.servlet.ReadListener;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import jakarta.servlet.ServletInputStream;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletRequestWrapper;
@@ -11,6 +12,7 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import com.ruoyi.common.utils.StringUtils;
 import com.ruoyi.common.utils.html.EscapeUtil;
+import com.ruoyi.common.utils.html.JsonHTMLFilter;
 
 /**
  * XSS过滤处理
@@ -19,6 +21,11 @@ import com.ruoyi.common.utils.html.EscapeUtil;
  */
 public class XssHttpServletRequestWrapper extends HttpServletRequestWrapper
 {
+    /**
+     * 过滤后的json请求体
+     */
+    private byte[] cleanBody;
+
     /**
      * @param request
      */
@@ -54,48 +61,28 @@ public class XssHttpServletRequestWrapper extends HttpServletRequestWrapper
             return super.getInputStream();
         }
 
-        // 为空，直接返回
-        String json = IOUtils.toString(super.getInputStream(), "utf-8");
-        if (StringUtils.isEmpty(json))
-        {
-            return super.getInputStream();
-        }
-
-        // xss过滤
-        json = EscapeUtil.clean(json).trim();
-        byte[] jsonBytes = json.getBytes("utf-8");
-        final ByteArrayInputStream bis = new ByteArrayInputStream(jsonBytes);
-        return new ServletInputStream()
+        // 过滤结果只计算一次，重复读取时直接使用
+        if (cleanBody == null)
         {
-            @Override
-            public boolean isFinished()
-            {
-                return true;
-            }
-
-            @Override
-            public boolean isReady()
-            {
-                return true;
-            }
-
-            @Override
-            public int available() throws IOException
-            {
-                return jsonBytes.length;
-            }
-
-            @Override
-            public void setReadListener(ReadListener readListener)
+            byte[] body = RepeatedlyRequestWrapper.getCachedBody(this);
+            if (body == null)
             {
+                body = IOUtils.toByteArray(super.getInputStream());
             }
+            // xss过滤（只处理字符串值，无需修改时不复制）
+            cleanBody = JsonHTMLFilter.filter(body);
+        }
+        return new RepeatedlyRequestWrapper.CachedBodyInputStream(cleanBody);
+    }
 
-            @Override
-            public int read() throws IOException
-            {
-                return bis.read();
-            }
-        };
+    @Override
+    public BufferedReader getReader() throws IOException
+    {
+        if (!isJsonRequest())
+        {
+            return super.getReader();
+        }
+        return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
     }
 
     /**
@@ -1,9 +1,13 @@
 package com.ruoyi.common.utils;
 
-import java.util.Collection;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import com.alibaba.fastjson2.JSONArray;
 import com.ruoyi.common.constant.CacheConstants;
 import com.ruoyi.common.core.domain.entity.SysDictData;
@@ -13,6 +17,10 @@ import com.ruoyi.common.utils.spring.SpringUtils;
 /**
  * 字典工具类
  * 
+ * 字典数据以redis为准，各节点在本地按字典类型保存只读索引（值到标签、标签到值、有序列表），查询不访问redis；
+ * 字典变更后通过 redis 广播通知其他节点丢弃对应的本地索引，下次使用时重新从redis加载。
+ * 广播不保证送达，本地索引超过刷新间隔后也会重新加载。
+ * 
  * @author ruoyi
  */
 public class DictUtils
@@ -22,6 +30,26 @@ public class DictUtils
      */
     public static final String SEPARATOR = ",";
 
+    /**
+     * 广播消息中表示全部字典类型
+     */
+    private static final String ALL_TYPES = "*";
+
+    /**
+     * 本地索引刷新间隔（毫秒）
+     */
+    private static final long REFRESH_INTERVAL = 5 * 60 * 1000L;
+
+    /**
+     * 失效代数，每次失效加一；索引记录加载前的代数，代数变化后即视为失效，避免加载期间的失效被旧数据覆盖
+     */
+    private static final AtomicLong GENERATION = new AtomicLong();
+
+    /**
+     * 本地字典索引
+     */
+    private static final Map<String, DictIndex> LOCAL_INDEX = new ConcurrentHashMap<>();
+
     /**
      * 设置字典缓存
      * 
@@ -31,6 +59,31 @@ public class DictUtils
     public static void setDictCache(String key, List<SysDictData> dictDatas)
     {
         SpringUtils.getBean(RedisCache.class).setCacheObject(getCacheKey(key), dictDatas);
+        invalidate(key);
+        LOCAL_INDEX.put(key, DictIndex.of(dictDatas, GENERATION.get()));
+        publish(key);
+    }
+
+    /**
+     * 批量设置字典缓存（加载全部字典时使用，只广播一次）
+     * 
+     * @param dictDataMap 字典类型与字典数据列表
+     */
+    public static void setDictCache(Map<String, List<SysDictData>> dictDataMap)
+    {
+        Map<String, List<SysDictData>> cacheMap = new LinkedHashMap<>();
+        for (Map.Entry<String, List<SysDictData>> entry : dictDataMap.entrySet())
+        {
+            cacheMap.put(getCacheKey(entry.getKey()), entry.getValue());
+        }
+        SpringUtils.getBean(RedisCache.class).multiSet(cacheMap);
+        invalidate(ALL_TYPES);
+        long generation = GENERATION.get();
+        for (Map.Entry<String, List<SysDictData>> entry : dictDataMap.entrySet())
+        {
+            LOCAL_INDEX.put(entry.getKey(), DictIndex.of(entry.getValue(), generation));
+        }
+        publish(ALL_TYPES);
     }
 
     /**
@@ -41,12 +94,27 @@ public class DictUtils
      */
     public static List<SysDictData> getDictCache(String key)
     {
-        JSONArray arrayCache = SpringUtils.getBean(RedisCache.class).getCacheObject(getCacheKey(key));
-        if (StringUtils.isNotNull(arrayCache))
+        return getDictIndex(key).datas;
+    }
+
+    /**
+     * 获取本地字典索引，不存在、已失效或超过刷新间隔时从redis加载
+     * 
+     * @param dictType 字典类型
+     * @return 字典索引（字典不存在时为空索引）
+     */
+    private static DictIndex getDictIndex(String dictType)
+    {
+        long generation = GENERATION.get();
+        DictIndex index = LOCAL_INDEX.get(dictType);
+        if (index == null || index.generation != generation || System.currentTimeMillis() - index.loadTime > REFRESH_INTERVAL)
         {
-            return arrayCache.toList(SysDictData.class);
+            // 先取代数再读redis，读取期间发生的失效会使本次加载的索引在下次使用时重新加载
+            JSONArray arrayCache = SpringUtils.getBean(RedisCache.class).getCacheObject(getCacheKey(dictType));
+            index = DictIndex.of(StringUtils.isNotNull(arrayCache) ? arrayCache.toList(SysDictData.class) : null, generation);
+            LOCAL_INDEX.put(dictType, index);
         }
-        return null;
+        return index;
     }
 
     /**
@@ -91,12 +159,11 @@ public class DictUtils
      */
     public static String getDictLabel(String dictType, String dictValue, String separator)
     {
-        List<SysDictData> datas = getDictCache(dictType);
-        if (StringUtils.isNull(datas) || StringUtils.isEmpty(dictValue))
+        if (StringUtils.isEmpty(dictValue))
         {
             return StringUtils.EMPTY;
         }
-        Map<String, String> dictMap = datas.stream().collect(HashMap::new, (map, dict) -> map.put(dict.getDictValue(), dict.getDictLabel()), Map::putAll);
+        Map<String, String> dictMap = getDictIndex(dictType).valueToLabel;
         if (!StringUtils.contains(dictValue, separator))
         {
             return dictMap.getOrDefault(dictValue, StringUtils.EMPTY);
@@ -122,12 +189,11 @@ public class DictUtils
      */
     public static String getDictValue(String dictType, String dictLabel, String separator)
     {
-        List<SysDictData> datas = getDictCache(dictType);
-        if (StringUtils.isNull(datas) || StringUtils.isEmpty(dictLabel))
+        if (StringUtils.isEmpty(dictLabel))
         {
             return StringUtils.EMPTY;
         }
-        Map<String, String> dictMap = datas.stream().collect(HashMap::new, (map, dict) -> map.put(dict.getDictLabel(), dict.getDictValue()), Map::putAll);
+        Map<String, String> dictMap = getDictIndex(dictType).labelToValue;
         if (!StringUtils.contains(dictLabel, separator))
         {
             return dictMap.getOrDefault(dictLabel, StringUtils.EMPTY);
@@ -151,17 +217,7 @@ public class DictUtils
      */
     public static String getDictValues(String dictType)
     {
-        StringBuilder propertyString = new StringBuilder();
-        List<SysDictData> datas = getDictCache(dictType);
-        if (StringUtils.isNull(datas))
-        {
-            return StringUtils.EMPTY;
-        }
-        for (SysDictData dict : datas)
-        {
-            propertyString.append(dict.getDictValue()).append(SEPARATOR);
-        }
-        return StringUtils.stripEnd(propertyString.toString(), SEPARATOR);
+        return getDictIndex(dictType).values;
     }
 
     /**
@@ -172,17 +228,7 @@ public class DictUtils
      */
     public static String getDictLabels(String dictType)
     {
-        StringBuilder propertyString = new StringBuilder();
-        List<SysDictData> datas = getDictCache(dictType);
-        if (StringUtils.isNull(datas))
-        {
-            return StringUtils.EMPTY;
-        }
-        for (SysDictData dict : datas)
-        {
-            propertyString.append(dict.getDictLabel()).append(SEPARATOR);
-        }
-        return StringUtils.stripEnd(propertyString.toString(), SEPARATOR);
+        return getDictIndex(dictType).labels;
     }
 
     /**
@@ -193,6 +239,8 @@ public class DictUtils
     public static void removeDictCache(String key)
     {
         SpringUtils.getBean(RedisCache.class).deleteObject(getCacheKey(key));
+        invalidate(key);
+        publish(key);
     }
 
     /**
@@ -200,8 +248,48 @@ public class DictUtils
      */
     public static void clearDictCache()
     {
-        Collection<String> keys = SpringUtils.getBean(RedisCache.class).keys(CacheConstants.SYS_DICT_KEY + "*");
-        SpringUtils.getBean(RedisCache.class).deleteObject(keys);
+        SpringUtils.getBean(RedisCache.class).deleteByPattern(CacheConstants.SYS_DICT_KEY + "*");
+        invalidate(ALL_TYPES);
+        publish(ALL_TYPES);
+    }
+
+    /**
+     * 处理其他节点的字典变更广播，丢弃对应的本地索引
+     * 
+     * @param message 广播消息
+     */
+    public static void onDictChanged(String message)
+    {
+        int index = StringUtils.indexOf(message, ':');
+        if (index < 0 || RedisCache.NODE_ID.equals(message.substring(0, index)))
+        {
+            return;
+        }
+        invalidate(message.substring(index + 1));
+    }
+
+    /**
+     * 使本地索引失效，代数加一后，加载中的旧索引不会再被使用
+     */
+    private static void invalidate(String dictType)
+    {
+        GENERATION.incrementAndGet();
+        if (ALL_TYPES.equals(dictType))
+        {
+            LOCAL_INDEX.clear();
+        }
+        else
+        {
+            LOCAL_INDEX.remove(dictType);
+        }
+    }
+
+    /**
+     * 广播字典变更
+     */
+    private static void publish(String dictType)
+    {
+        SpringUtils.getBean(RedisCache.class).publish(CacheConstants.SYS_DICT_CHANNEL, RedisCache.NODE_ID + ":" + dictType);
     }
 
     /**
@@ -214,4 +302,59 @@ public class DictUtils
     {
         return CacheConstants.SYS_DICT_KEY + configKey;
     }
+
+    /**
+     * 单个字典类型的只读索引
+     */
+    private static final class DictIndex
+    {
+        private final List<SysDictData> datas;
+
+        private final Map<String, String> valueToLabel;
+
+        private final Map<String, String> labelToValue;
+
+        private final String values;
+
+        private final String labels;
+
+        /** 加载前的失效代数 */
+        private final long generation;
+
+        private final long loadTime = System.currentTimeMillis();
+
+        private DictIndex(List<SysDictData> datas, Map<String, String> valueToLabel, Map<String, String> labelToValue,
+                String values, String labels, long generation)
+        {
+            this.datas = datas;
+            this.valueToLabel = valueToLabel;
+            this.labelToValue = labelToValue;
+            this.values = values;
+            this.labels = labels;
+            this.generation = generation;
+        }
+
+        private static DictIndex of(List<SysDictData> datas, long generation)
+        {
+            if (datas == null)
+            {
+                return new DictIndex(null, Collections.emptyMap(), Collections.emptyMap(), StringUtils.EMPTY, StringUtils.EMPTY,
+                        generation);
+            }
+            Map<String, String> valueToLabel = new HashMap<>();
+            Map<String, String> labelToValue = new HashMap<>();
+            StringBuilder values = new StringBuilder();
+            StringBuilder labels = new StringBuilder();
+            for (SysDictData dict : datas)
+            {
+                valueToLabel.put(dict.getDictValue(), dict.getDictLabel());
+                labelToValue.put(dict.getDictLabel(), dict.getDictValue());
+                values.append(dict.getDictValue()).append(SEPARATOR);
+                labels.append(dict.getDictLabel()).append(SEPARATOR);
+            }
+            return new DictIndex(Collections.unmodifiableList(new ArrayList<>(datas)), Collections.unmodifiableMap(valueToLabel),
+                    Collections.unmodifiableMap(labelToValue), StringUtils.stripEnd(values.toString(), SEPARATOR),
+                    StringUtils.stripEnd(labels.toString(), SEPARATOR), generation);
+        }
+    }
 }
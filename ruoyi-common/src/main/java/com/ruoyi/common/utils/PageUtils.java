@@ -1,6 +1,17 @@
 package com.ruoyi.common.utils;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.pagehelper.ISelect;
+import com.github.pagehelper.Page;
 import com.github.pagehelper.PageHelper;
+import com.ruoyi.common.core.domain.BaseEntity;
 import com.ruoyi.common.core.page.PageDomain;
 import com.ruoyi.common.core.page.TableSupport;
 import com.ruoyi.common.utils.sql.SqlUtil;
@@ -12,6 +23,22 @@ import com.ruoyi.common.utils.sql.SqlUtil;
  */
 public class PageUtils extends PageHelper
 {
+    /**
+     * 游标分页标记（查询参数 params.keyset）
+     */
+    public static final String KEYSET = "keyset";
+
+    /**
+     * 游标分页的起始ID（查询参数 params.cursorId，查询ID小于该值的记录）
+     */
+    public static final String CURSOR_ID = "cursorId";
+
+    /**
+     * 游标分页总记录数缓存
+     */
+    private static final Cache<String, Long> COUNT_CACHE = Caffeine.newBuilder().maximumSize(1000)
+            .expireAfterWrite(60, TimeUnit.SECONDS).build();
+
     /**
      * 设置请求分页数据
      */
@@ -25,6 +52,62 @@ public class PageUtils extends PageHelper
         PageHelper.startPage(pageNum, pageSize, orderBy).setReasonable(reasonable);
     }
 
+    /**
+     * 查询是否为游标分页
+     * 
+     * @param entity 查询对象
+     * @return 结果
+     */
+    public static boolean isKeysetPage(BaseEntity entity)
+    {
+        return entity.getParams().containsKey(KEYSET);
+    }
+
+    /**
+     * 查询总记录数，相同查询条件的结果缓存60秒（近似值）
+     * 
+     * @param key 查询条件
+     * @param select 查询
+     * @return 总记录数
+     */
+    public static long cachedCount(String key, ISelect select)
+    {
+        return COUNT_CACHE.get(key, k -> PageHelper.count(select));
+    }
+
+    /**
+     * 生成游标
+     * 
+     * @param id 本页最后一条记录的ID
+     * @return 游标
+     */
+    public static String encodeCursor(Long id)
+    {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(String.valueOf(id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解析游标
+     * 
+     * @param cursor 游标
+     * @return 记录ID，游标为空或无效时返回null
+     */
+    public static Long decodeCursor(String cursor)
+    {
+        if (StringUtils.isEmpty(cursor))
+        {
+            return null;
+        }
+        try
+        {
+            return Long.valueOf(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        }
+        catch (IllegalArgumentException e)
+        {
+            return null;
+        }
+    }
+
     /**
      * 清理分页的线程变量
      */
@@ -32,4 +115,48 @@ public class PageUtils extends PageHelper
     {
         PageHelper.clearPage();
     }
+
+    /**
+     * 在数据库查询结果之后追加数据，按当前线程的分页参数合并分页（忽略排序参数）
+     * 
+     * @param select 数据库查询
+     * @param tail 追加在数据库结果之后的数据
+     * @return 分页结果，未设置分页时返回全部数据
+     */
+    public static <T> List<T> appendPage(Supplier<List<T>> select, List<T> tail)
+    {
+        Page<Object> localPage = PageHelper.getLocalPage();
+        clearPage();
+        if (localPage == null || localPage.getPageSize() <= 0)
+        {
+            List<T> list = new ArrayList<>(select.get());
+            list.addAll(tail);
+            return list;
+        }
+        int pageNum = Math.max(1, localPage.getPageNum());
+        int pageSize = localPage.getPageSize();
+        long offset = (long) (pageNum - 1) * pageSize;
+        long selectTotal = PageHelper.count(select::get);
+        Page<T> page = new Page<>(pageNum, pageSize);
+        page.setTotal(selectTotal + tail.size());
+        if (offset < selectTotal)
+        {
+            PageHelper.offsetPage((int) offset, pageSize, false);
+            try
+            {
+                page.addAll(select.get());
+            }
+            finally
+            {
+                clearPage();
+            }
+        }
+        int tailOffset = (int) Math.max(0, offset - selectTotal);
+        int tailEnd = Math.min(tail.size(), tailOffset + pageSize - page.size());
+        if (tailOffset < tailEnd)
+        {
+            page.addAll(tail.subList(tailOffset, tailEnd));
+        }
+        return page;
+    }
 }
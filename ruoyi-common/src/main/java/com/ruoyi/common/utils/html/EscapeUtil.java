@@ -13,6 +13,11 @@ public class EscapeUtil
 
     private static final char[][] TEXT = new char[64][];
 
+    /**
+     * 默认配置的HTML过滤器（无状态，线程安全）
+     */
+    private static final HTMLFilter HTML_FILTER = new HTMLFilter();
+
     static
     {
         for (int i = 0; i < 64; i++)
@@ -58,7 +63,35 @@ public class EscapeUtil
      */
     public static String clean(String content)
     {
-        return new HTMLFilter().filter(content);
+        // 不含尖括号的文本过滤前后不变，直接返回
+        if (!containsMarkup(content))
+        {
+            return content;
+        }
+        return HTML_FILTER.filter(content);
+    }
+
+    /**
+     * 是否包含需要HTML过滤的字符（尖括号）
+     * 
+     * @param content 文本
+     * @return 结果
+     */
+    public static boolean containsMarkup(CharSequence content)
+    {
+        if (content == null)
+        {
+            return false;
+        }
+        for (int i = 0; i < content.length(); i++)
+        {
+            char c = content.charAt(i);
+            if (c == '<' || c == '>')
+            {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
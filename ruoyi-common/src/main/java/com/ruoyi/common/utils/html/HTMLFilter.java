@@ -13,6 +13,8 @@ import java.util.regex.Pattern;
 /**
  * HTML过滤器，用于去除XSS漏洞隐患。
  *
+ * 配置在构造后不再变化，标签计数在每次过滤时单独创建，同一实例可被多线程共用。
+ *
  * @author ruoyi
  */
 public final class HTMLFilter
@@ -53,11 +55,6 @@ public final class HTMLFilter
      * set of allowed html elements, along with allowed attributes for each element
      **/
     private final Map<String, List<String>> vAllowed;
-    /**
-     * counts of open tags for each (allowable) html element
-     **/
-    private final Map<String, Integer> vTagCounts = new HashMap<>();
-
     /**
      * html elements which must always be self-closing (e.g. "<img />")
      **/
@@ -165,11 +162,6 @@ public final class HTMLFilter
         alwaysMakeTags = conf.containsKey("alwaysMakeTags") ? (Boolean) conf.get("alwaysMakeTags") : true;
     }
 
-    private void reset()
-    {
-        vTagCounts.clear();
-    }
-
     // ---------------------------------------------------------------
     // my versions of some PHP library functions
     public static String chr(final int decimal)
@@ -197,14 +189,15 @@ public final class HTMLFilter
      */
     public String filter(final String input)
     {
-        reset();
+        // 每次过滤单独计数，实例本身不保存状态，可在多线程间共用
+        final Map<String, Integer> vTagCounts = new HashMap<>();
         String s = input;
 
         s = escapeComments(s);
 
         s = balanceHTML(s);
 
-        s = checkTags(s);
+        s = checkTags(s, vTagCounts);
 
         s = processRemoveBlanks(s);
 
@@ -269,7 +262,7 @@ public final class HTMLFilter
         return s;
     }
 
-    private String checkTags(String s)
+    private String checkTags(String s, final Map<String, Integer> vTagCounts)
     {
         Matcher m = P_TAGS.matcher(s);
 
@@ -277,13 +270,12 @@ public final class HTMLFilter
         while (m.find())
         {
             String replaceStr = m.group(1);
-            replaceStr = processTag(replaceStr);
+            replaceStr = processTag(replaceStr, vTagCounts);
             m.appendReplacement(buf, Matcher.quoteReplacement(replaceStr));
         }
         m.appendTail(buf);
 
         // these get tallied in processTag
-        // (remember to reset before subsequent calls to filter method)
         final StringBuilder sBuilder = new StringBuilder(buf.toString());
         for (String key : vTagCounts.keySet())
         {
@@ -323,7 +315,7 @@ public final class HTMLFilter
         return m.replaceAll(replacement);
     }
 
-    private String processTag(final String s)
+    private String processTag(final String s, final Map<String, Integer> vTagCounts)
     {
         // ending tags
         Matcher m = P_END_TAG.matcher(s);
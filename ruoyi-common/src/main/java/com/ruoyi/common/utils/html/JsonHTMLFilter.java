@@ -0,0 +1,171 @@
+package com.ruoyi.common.utils.html;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * JSON请求体的HTML过滤器
+ *
+ * 单次扫描UTF-8字节，只对字符串值（不含键名、数字等）做HTML过滤，不含尖括号的值原样复制；
+ * 整个请求体都不含尖括号时直接返回原数组。值中以unicode转义（u003c、u003e）表示的尖括号会先还原再过滤，避免绕过。
+ *
+ * @author ruoyi
+ */
+public final class JsonHTMLFilter
+{
+    private JsonHTMLFilter()
+    {
+    }
+
+    /**
+     * 过滤JSON请求体
+     *
+     * @param json UTF-8编码的JSON
+     * @return 过滤后的JSON，无需修改时返回原数组
+     */
+    public static byte[] filter(byte[] json)
+    {
+        if (json == null || !containsMarkup(json, 0, json.length))
+        {
+            return json;
+        }
+        ByteArrayOutputStream out = null;
+        int copied = 0;
+        int i = 0;
+        while (i < json.length)
+        {
+            if (json[i] != '"')
+            {
+                i++;
+                continue;
+            }
+            int start = i + 1;
+            int end = stringEnd(json, start);
+            if (end < 0)
+            {
+                // 格式不完整，按整段文本过滤
+                return EscapeUtil.clean(new String(json, StandardCharsets.UTF_8)).getBytes(StandardCharsets.UTF_8);
+            }
+            if (!isKey(json, end + 1) && containsMarkup(json, start, end))
+            {
+                String value = new String(json, start, end - start, StandardCharsets.UTF_8);
+                String cleaned = EscapeUtil.clean(decodeArrows(value));
+                if (!cleaned.equals(value))
+                {
+                    if (out == null)
+                    {
+                        out = new ByteArrayOutputStream(json.length);
+                    }
+                    out.write(json, copied, start - copied);
+                    out.writeBytes(cleaned.getBytes(StandardCharsets.UTF_8));
+                    copied = end;
+                }
+            }
+            i = end + 1;
+        }
+        if (out == null)
+        {
+            return json;
+        }
+        out.write(json, copied, json.length - copied);
+        return out.toByteArray();
+    }
+
+    /**
+     * 查找字符串结束的引号位置
+     *
+     * @return 结束引号下标，未结束返回-1
+     */
+    private static int stringEnd(byte[] json, int from)
+    {
+        for (int i = from; i < json.length; i++)
+        {
+            if (json[i] == '\\')
+            {
+                i++;
+            }
+            else if (json[i] == '"')
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 字符串后面紧跟冒号的是键名
+     */
+    private static boolean isKey(byte[] json, int from)
+    {
+        for (int i = from; i < json.length; i++)
+        {
+            byte b = json[i];
+            if (b != ' ' && b != '\t' && b != '\r' && b != '\n')
+            {
+                return b == ':';
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 是否包含尖括号或其unicode转义
+     */
+    private static boolean containsMarkup(byte[] json, int from, int to)
+    {
+        for (int i = from; i < to; i++)
+        {
+            byte b = json[i];
+            if (b == '<' || b == '>')
+            {
+                return true;
+            }
+            if (b == '\\' && i + 5 < to && json[i + 1] == 'u' && isArrowEscape(json[i + 2], json[i + 3], json[i + 4], json[i + 5]))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isArrowEscape(int c1, int c2, int c3, int c4)
+    {
+        return c1 == '0' && c2 == '0' && c3 == '3' && (c4 == 'c' || c4 == 'C' || c4 == 'e' || c4 == 'E');
+    }
+
+    /**
+     * 将unicode转义的尖括号还原，其他转义保持不变
+     */
+    private static String decodeArrows(String value)
+    {
+        if (value.indexOf('\\') < 0)
+        {
+            return value;
+        }
+        StringBuilder sb = new StringBuilder(value.length());
+        int length = value.length();
+        for (int i = 0; i < length; i++)
+        {
+            char c = value.charAt(i);
+            if (c != '\\' || i + 1 >= length)
+            {
+                sb.append(c);
+                continue;
+            }
+            if (value.charAt(i + 1) == 'u' && i + 5 < length
+                    && isArrowEscape(value.charAt(i + 2), value.charAt(i + 3), value.charAt(i + 4), value.charAt(i + 5)))
+            {
+                char last = value.charAt(i + 5);
+                sb.append(last == 'c' || last == 'C' ? '<' : '>');
+                i += 5;
+            }
+            else
+            {
+                // 保留其他转义序列（含 \\），跳过被转义的字符
+                sb.append(c).append(value.charAt(i + 1));
+                i++;
+            }
+        }
+        return sb.toString();
+    }
+}
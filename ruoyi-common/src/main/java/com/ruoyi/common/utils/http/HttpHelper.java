@@ -9,6 +9,7 @@ import jakarta.servlet.ServletRequest;
 import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import com.ruoyi.common.filter.RepeatedlyRequestWrapper;
 
 /**
  * 通用http工具封装
@@ -21,6 +22,12 @@ public class HttpHelper
 
     public static String getBodyString(ServletRequest request)
     {
+        // 请求体已缓存时直接使用，避免再次读取
+        byte[] body = RepeatedlyRequestWrapper.getCachedBody(request);
+        if (body != null)
+        {
+            return new String(body, StandardCharsets.UTF_8);
+        }
         StringBuilder sb = new StringBuilder();
         BufferedReader reader = null;
         try (InputStream inputStream = request.getInputStream())
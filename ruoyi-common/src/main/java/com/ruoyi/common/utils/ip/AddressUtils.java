@@ -24,6 +24,11 @@ public class AddressUtils
     // 未知地址
     public static final String UNKNOWN = "XX XX";
 
+    // 离线地址库查询结果缓存条数
+    private static final long LOCAL_CACHE_SIZE = 10000;
+
+    private static volatile IpRegionSearcher searcher;
+
     public static String getRealAddressByIP(String ip)
     {
         // 内网不查询
@@ -31,6 +36,16 @@ public class AddressUtils
         {
             return "内网IP";
         }
+        // 优先查询离线地址库
+        IpRegionSearcher localSearcher = getSearcher();
+        if (localSearcher != null && localSearcher.isAvailable())
+        {
+            String region = localSearcher.search(ip);
+            if (StringUtils.isNotEmpty(region))
+            {
+                return region;
+            }
+        }
         if (RuoYiConfig.isAddressEnabled())
         {
             try
@@ -53,4 +68,22 @@ public class AddressUtils
         }
         return UNKNOWN;
     }
+
+    /**
+     * 获取离线地址库，未配置时返回null
+     */
+    private static IpRegionSearcher getSearcher()
+    {
+        if (searcher == null && StringUtils.isNotEmpty(RuoYiConfig.getIpDbPath()))
+        {
+            synchronized (AddressUtils.class)
+            {
+                if (searcher == null)
+                {
+                    searcher = new IpRegionSearcher(RuoYiConfig.getIpDbPath(), LOCAL_CACHE_SIZE);
+                }
+            }
+        }
+        return searcher;
+    }
 }
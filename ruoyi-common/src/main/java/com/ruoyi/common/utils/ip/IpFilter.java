@@ -0,0 +1,155 @@
+package com.ruoyi.common.utils.ip;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import com.ruoyi.common.utils.StringUtils;
+
+/**
+ * 预解析的IP过滤规则
+ *
+ * 规则格式与 {@link IpUtils#isMatchedIp(String, String)} 相同，构造时一次完成分类与解析，匹配时不再做正则校验。
+ *
+ * @author ruoyi
+ */
+public class IpFilter
+{
+    /** 不包含任何规则的过滤器 */
+    public static final IpFilter EMPTY = new IpFilter(null);
+
+    /** 精确匹配的IP */
+    private final Set<String> ips = new HashSet<>();
+
+    /** 通配符规则中'*'之前的各段 */
+    private final List<String[]> wildCards = new ArrayList<>();
+
+    /** 网段规则的起止地址 */
+    private final List<long[]> segments = new ArrayList<>();
+
+    /**
+     * @param filter 过滤IP列表，';'分隔，支持后缀'*'通配，支持网段如:`10.10.10.1-10.10.10.99`
+     */
+    public IpFilter(String filter)
+    {
+        if (StringUtils.isEmpty(filter))
+        {
+            return;
+        }
+        for (String item : filter.split(";"))
+        {
+            if (IpUtils.isIP(item))
+            {
+                ips.add(item);
+            }
+            else if (IpUtils.isIpWildCard(item))
+            {
+                String prefix = StringUtils.substringBefore(item, "*");
+                wildCards.add(StringUtils.isEmpty(prefix) ? new String[0] : StringUtils.removeEnd(prefix, ".").split("\\."));
+            }
+            else if (IpUtils.isIPSegment(item))
+            {
+                int idx = item.indexOf('-');
+                long start = toLong(item.substring(0, idx));
+                long end = toLong(item.substring(idx + 1));
+                segments.add(new long[] { Math.min(start, end), Math.max(start, end) });
+            }
+        }
+    }
+
+    /**
+     * 是否没有任何有效规则
+     */
+    public boolean isEmpty()
+    {
+        return ips.isEmpty() && wildCards.isEmpty() && segments.isEmpty();
+    }
+
+    /**
+     * 校验ip是否符合过滤规则
+     *
+     * @param ip 校验IP地址
+     * @return 结果
+     */
+    public boolean matches(String ip)
+    {
+        if (StringUtils.isEmpty(ip) || isEmpty())
+        {
+            return false;
+        }
+        if (ips.contains(ip))
+        {
+            return true;
+        }
+        if (!wildCards.isEmpty())
+        {
+            String[] parts = ip.split("\\.");
+            for (String[] wildCard : wildCards)
+            {
+                if (matchesPrefix(wildCard, parts))
+                {
+                    return true;
+                }
+            }
+        }
+        if (!segments.isEmpty())
+        {
+            long value = toLong(ip);
+            for (long[] segment : segments)
+            {
+                if (value >= 0 && segment[0] <= value && value <= segment[1])
+                {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean matchesPrefix(String[] prefix, String[] parts)
+    {
+        if (parts.length < prefix.length)
+        {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++)
+        {
+            if (!prefix[i].equals(parts[i]))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * IPv4地址转为整数，非IPv4地址返回-1
+     */
+    private static long toLong(String ip)
+    {
+        String[] parts = ip.split("\\.");
+        if (parts.length != 4)
+        {
+            return -1;
+        }
+        long value = 0;
+        for (String part : parts)
+        {
+            int segment;
+            try
+            {
+                segment = Integer.parseInt(part);
+            }
+            catch (NumberFormatException e)
+            {
+                return -1;
+            }
+            if (segment < 0 || segment > 255)
+            {
+                return -1;
+            }
+            value = value << 8 | segment;
+        }
+        return value;
+    }
+}
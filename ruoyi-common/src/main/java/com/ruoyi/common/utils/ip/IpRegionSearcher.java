@@ -0,0 +1,542 @@
+package com.ruoyi.common.utils.ip;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.net.Inet4Address;
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ruoyi.common.utils.StringUtils;
+
+/**
+ * 离线IP地址库查询
+ *
+ * 地址库文件复制到临时文件后以内存映射方式加载（原文件被原地覆盖时不影响已映射的数据），
+ * IPv4/IPv6地址段按起始地址排序后二分查找，查询结果进入LRU缓存；文件被替换后在下次检查时自动重新加载。
+ * IPv4映射的IPv6地址（::ffff:a.b.c.d）按IPv4地址查询。
+ *
+ * 由文本地址段（每行：起始IP|结束IP|地区）生成地址库文件：
+ * java -cp ruoyi-admin.jar -Dloader.main=com.ruoyi.common.utils.ip.IpRegionSearcher
+ *     org.springframework.boot.loader.launch.PropertiesLauncher 文本文件 地址库文件
+ * 生成时先写入同目录临时文件再重命名替换，可以直接指定正在使用的地址库路径。
+ *
+ * 文件格式（大端序）：
+ * 魔数"RYIP"、版本号、地区数、IPv4段数、IPv6段数（各int）；
+ * 地区表（每项short长度 + UTF-8字节）；
+ * IPv4段（起始int、结束int、地区序号int）；
+ * IPv6段（起始高/低long、结束高/低long、地区序号int）。
+ *
+ * @author ruoyi
+ */
+public class IpRegionSearcher
+{
+    private static final Logger log = LoggerFactory.getLogger(IpRegionSearcher.class);
+
+    private static final int MAGIC = 0x52594950;
+
+    private static final int VERSION = 1;
+
+    private static final int HEADER_SIZE = 20;
+
+    private static final int V4_ENTRY_SIZE = 12;
+
+    private static final int V6_ENTRY_SIZE = 36;
+
+    /**
+     * 文件变更检查间隔（毫秒）
+     */
+    private static final long CHECK_INTERVAL = 10 * 1000L;
+
+    private final File file;
+
+    private final Cache<String, String> cache;
+
+    private volatile Database database;
+
+    private volatile long checkTime;
+
+    /**
+     * @param path 地址库文件路径
+     * @param cacheSize 查询结果缓存条数
+     */
+    public IpRegionSearcher(String path, long cacheSize)
+    {
+        this.file = new File(path);
+        this.cache = Caffeine.newBuilder().maximumSize(cacheSize).expireAfterWrite(1, TimeUnit.DAYS).build();
+        reload();
+    }
+
+    /**
+     * 地址库是否可用
+     */
+    public boolean isAvailable()
+    {
+        return database != null;
+    }
+
+    /**
+     * 查询IP所在地区
+     *
+     * @param ip IP地址
+     * @return 地区，未收录或地址无效返回null
+     */
+    public String search(String ip)
+    {
+        checkReload();
+        Database db = database;
+        if (db == null || StringUtils.isEmpty(ip))
+        {
+            return null;
+        }
+        String region = cache.getIfPresent(ip);
+        if (region == null)
+        {
+            region = db.search(ip);
+            if (region != null)
+            {
+                cache.put(ip, region);
+            }
+        }
+        return region;
+    }
+
+    /**
+     * 文件修改时间或大小变化时重新加载
+     */
+    private void checkReload()
+    {
+        long now = System.currentTimeMillis();
+        if (now - checkTime < CHECK_INTERVAL)
+        {
+            return;
+        }
+        checkTime = now;
+        Database db = database;
+        if (db == null || file.lastModified() != db.lastModified || file.length() != db.length)
+        {
+            reload();
+        }
+    }
+
+    private synchronized void reload()
+    {
+        checkTime = System.currentTimeMillis();
+        if (!file.isFile())
+        {
+            return;
+        }
+        try
+        {
+            database = Database.load(file);
+            cache.invalidateAll();
+            log.info("加载IP地址库 {}，IPv4段{}条，IPv6段{}条", file.getPath(), database.v4Count, database.v6Count);
+        }
+        catch (Exception e)
+        {
+            log.error("加载IP地址库异常 {} '{}'", file.getPath(), e.getMessage());
+        }
+    }
+
+    /**
+     * 命令行生成地址库文件
+     *
+     * @param args 文本文件路径、地址库文件路径
+     */
+    public static void main(String[] args) throws IOException
+    {
+        if (args.length != 2)
+        {
+            System.err.println("用法: IpRegionSearcher <文本文件(起始IP|结束IP|地区)> <地址库文件>");
+            System.exit(1);
+        }
+        convert(Paths.get(args[0]), Paths.get(args[1]));
+        System.out.println("已生成IP地址库 " + args[1]);
+    }
+
+    /**
+     * 将文本地址段转换为地址库文件，每行格式：起始IP|结束IP|地区
+     *
+     * 先写入同目录下的临时文件，完成后原子重命名为目标文件，运行中的节点不会读到写了一半的文件。
+     *
+     * @param source 文本文件
+     * @param target 地址库文件
+     */
+    public static void convert(Path source, Path target) throws IOException
+    {
+        Map<String, Integer> regions = new LinkedHashMap<>();
+        List<long[]> v4 = new ArrayList<>();
+        List<long[]> v6 = new ArrayList<>();
+        int skipped = 0;
+        try (BufferedReader reader = Files.newBufferedReader(source, StandardCharsets.UTF_8))
+        {
+            String line;
+            while ((line = reader.readLine()) != null)
+            {
+                String[] parts = line.split("\\|", 3);
+                if (parts.length < 3)
+                {
+                    continue;
+                }
+                // 起止地址无效或结束地址小于起始地址的行跳过，避免写入覆盖整个地址空间的错误区间
+                long v4Start = toIPv4(parts[0].trim());
+                if (v4Start >= 0)
+                {
+                    long v4End = toIPv4(parts[1].trim());
+                    if (v4End < v4Start)
+                    {
+                        skipped++;
+                        continue;
+                    }
+                    v4.add(new long[] { v4Start, v4End, regions.computeIfAbsent(parts[2].trim(), key -> regions.size()) });
+                    continue;
+                }
+                long[] v6Start = toIPv6(parts[0].trim());
+                long[] v6End = toIPv6(parts[1].trim());
+                if (v6Start == null || v6End == null || compareUnsigned(v6End[0], v6End[1], v6Start[0], v6Start[1]) < 0)
+                {
+                    skipped++;
+                    continue;
+                }
+                v6.add(new long[] { v6Start[0], v6Start[1], v6End[0], v6End[1], regions.computeIfAbsent(parts[2].trim(), key -> regions.size()) });
+            }
+        }
+        if (skipped > 0)
+        {
+            log.warn("转换IP地址库 {}，跳过无效地址段{}条", source, skipped);
+        }
+        v4.sort((a, b) -> Long.compare(a[0], b[0]));
+        v6.sort((a, b) -> compareUnsigned(a[0], a[1], b[0], b[1]));
+        Path absoluteTarget = target.toAbsolutePath();
+        Path temp = Files.createTempFile(absoluteTarget.getParent(), absoluteTarget.getFileName().toString(), ".tmp");
+        try
+        {
+            write(temp, regions, v4, v6);
+            Files.move(temp, absoluteTarget, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        finally
+        {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static void write(Path target, Map<String, Integer> regions, List<long[]> v4, List<long[]> v6) throws IOException
+    {
+        try (OutputStream os = Files.newOutputStream(target); DataOutputStream out = new DataOutputStream(new BufferedOutputStream(os)))
+        {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(regions.size());
+            out.writeInt(v4.size());
+            out.writeInt(v6.size());
+            for (String region : regions.keySet())
+            {
+                byte[] bytes = region.getBytes(StandardCharsets.UTF_8);
+                out.writeShort(bytes.length);
+                out.write(bytes);
+            }
+            for (long[] range : v4)
+            {
+                out.writeInt((int) range[0]);
+                out.writeInt((int) range[1]);
+                out.writeInt((int) range[2]);
+            }
+            for (long[] range : v6)
+            {
+                out.writeLong(range[0]);
+                out.writeLong(range[1]);
+                out.writeLong(range[2]);
+                out.writeLong(range[3]);
+                out.writeInt((int) range[4]);
+            }
+        }
+    }
+
+    /**
+     * IPv4地址转为无符号整数
+     *
+     * @return 地址值，非IPv4地址返回-1
+     */
+    private static long toIPv4(String ip)
+    {
+        long value = 0;
+        int part = -1;
+        int dots = 0;
+        for (int i = 0; i < ip.length(); i++)
+        {
+            char c = ip.charAt(i);
+            if (c >= '0' && c <= '9')
+            {
+                part = (part < 0 ? 0 : part * 10) + (c - '0');
+                if (part > 255)
+                {
+                    return -1;
+                }
+            }
+            else if (c == '.' && part >= 0 && dots < 3)
+            {
+                value = (value << 8) | part;
+                part = -1;
+                dots++;
+            }
+            else
+            {
+                return -1;
+            }
+        }
+        if (dots != 3 || part < 0)
+        {
+            return -1;
+        }
+        return (value << 8) | part;
+    }
+
+    /**
+     * IPv6地址转为高、低64位
+     *
+     * @return 地址值，非IPv6地址返回null
+     */
+    private static long[] toIPv6(String ip)
+    {
+        InetAddress address = parseIPv6Literal(ip);
+        if (!(address instanceof Inet6Address))
+        {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(address.getAddress());
+        return new long[] { buffer.getLong(), buffer.getLong() };
+    }
+
+    /**
+     * 解析IPv6字面量，IPv4映射地址返回对应的IPv4地址
+     *
+     * @return 地址，无法解析返回null
+     */
+    private static InetAddress parseIPv6Literal(String ip)
+    {
+        // 只处理IPv6字面量（十六进制数字、冒号及IPv4映射部分的点），避免触发域名解析
+        if (ip.indexOf(':') < 0)
+        {
+            return null;
+        }
+        for (int i = 0; i < ip.length(); i++)
+        {
+            char c = ip.charAt(i);
+            if (!(c >= '0' && c <= '9' || c >= 'a' && c <= 'f' || c >= 'A' && c <= 'F' || c == ':' || c == '.'))
+            {
+                return null;
+            }
+        }
+        try
+        {
+            return InetAddress.getByName(ip);
+        }
+        catch (Exception e)
+        {
+            return null;
+        }
+    }
+
+    private static int compareUnsigned(long hi1, long lo1, long hi2, long lo2)
+    {
+        int result = Long.compareUnsigned(hi1, hi2);
+        return result != 0 ? result : Long.compareUnsigned(lo1, lo2);
+    }
+
+    /**
+     * 已加载的地址库
+     */
+    private static class Database
+    {
+        private final MappedByteBuffer buffer;
+
+        private final String[] regions;
+
+        private final int v4Offset;
+
+        private final int v4Count;
+
+        private final int v6Offset;
+
+        private final int v6Count;
+
+        private final long lastModified;
+
+        private final long length;
+
+        private Database(MappedByteBuffer buffer, String[] regions, int v4Offset, int v4Count, int v6Offset,
+                int v6Count, long lastModified, long length)
+        {
+            this.buffer = buffer;
+            this.regions = regions;
+            this.v4Offset = v4Offset;
+            this.v4Count = v4Count;
+            this.v6Offset = v6Offset;
+            this.v6Count = v6Count;
+            this.lastModified = lastModified;
+            this.length = length;
+        }
+
+        private static Database load(File file) throws IOException
+        {
+            long lastModified = file.lastModified();
+            // 映射副本而不是原文件，原文件被原地覆盖或截断时不会导致读取映射内存出错
+            Path copy = Files.createTempFile("ruoyi-ipdb-", ".dat");
+            try
+            {
+                Files.copy(file.toPath(), copy, StandardCopyOption.REPLACE_EXISTING);
+                return load(copy.toFile(), lastModified, file.length());
+            }
+            finally
+            {
+                // 已映射的内容在解除映射前仍可访问，Windows下映射中的文件无法删除则在退出时删除
+                try
+                {
+                    Files.deleteIfExists(copy);
+                }
+                catch (IOException e)
+                {
+                    copy.toFile().deleteOnExit();
+                }
+            }
+        }
+
+        private static Database load(File file, long lastModified, long sourceLength) throws IOException
+        {
+            try (RandomAccessFile raf = new RandomAccessFile(file, "r"); FileChannel channel = raf.getChannel())
+            {
+                long length = channel.size();
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+                if (length < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION)
+                {
+                    throw new IOException("IP地址库格式错误");
+                }
+                int regionCount = buffer.getInt(8);
+                int v4Count = buffer.getInt(12);
+                int v6Count = buffer.getInt(16);
+                String[] regions = new String[regionCount];
+                int offset = HEADER_SIZE;
+                for (int i = 0; i < regionCount; i++)
+                {
+                    int size = buffer.getShort(offset) & 0xffff;
+                    byte[] bytes = new byte[size];
+                    buffer.get(offset + 2, bytes);
+                    regions[i] = new String(bytes, StandardCharsets.UTF_8);
+                    offset += 2 + size;
+                }
+                int v6Offset = offset + v4Count * V4_ENTRY_SIZE;
+                if ((long) v6Offset + (long) v6Count * V6_ENTRY_SIZE > length)
+                {
+                    throw new IOException("IP地址库文件不完整");
+                }
+                return new Database(buffer, regions, offset, v4Count, v6Offset, v6Count, lastModified, sourceLength);
+            }
+        }
+
+        private String search(String ip)
+        {
+            long v4 = toIPv4(ip);
+            if (v4 >= 0)
+            {
+                return searchIPv4(v4);
+            }
+            InetAddress address = parseIPv6Literal(ip);
+            if (address instanceof Inet4Address)
+            {
+                // IPv4映射的IPv6地址
+                return searchIPv4(Integer.toUnsignedLong(ByteBuffer.wrap(address.getAddress()).getInt()));
+            }
+            if (address instanceof Inet6Address)
+            {
+                ByteBuffer buffer = ByteBuffer.wrap(address.getAddress());
+                return searchIPv6(buffer.getLong(), buffer.getLong());
+            }
+            return null;
+        }
+
+        /**
+         * 查找起始地址不大于目标地址的最后一段，再判断是否在段内
+         */
+        private String searchIPv4(long ip)
+        {
+            int low = 0;
+            int high = v4Count - 1;
+            int found = -1;
+            while (low <= high)
+            {
+                int mid = (low + high) >>> 1;
+                long start = Integer.toUnsignedLong(buffer.getInt(v4Offset + mid * V4_ENTRY_SIZE));
+                if (start <= ip)
+                {
+                    found = mid;
+                    low = mid + 1;
+                }
+                else
+                {
+                    high = mid - 1;
+                }
+            }
+            if (found < 0)
+            {
+                return null;
+            }
+            int position = v4Offset + found * V4_ENTRY_SIZE;
+            if (Integer.toUnsignedLong(buffer.getInt(position + 4)) < ip)
+            {
+                return null;
+            }
+            return regions[buffer.getInt(position + 8)];
+        }
+
+        private String searchIPv6(long hi, long lo)
+        {
+            int low = 0;
+            int high = v6Count - 1;
+            int found = -1;
+            while (low <= high)
+            {
+                int mid = (low + high) >>> 1;
+                int position = v6Offset + mid * V6_ENTRY_SIZE;
+                if (compareUnsigned(buffer.getLong(position), buffer.getLong(position + 8), hi, lo) <= 0)
+                {
+                    found = mid;
+                    low = mid + 1;
+                }
+                else
+                {
+                    high = mid - 1;
+                }
+            }
+            if (found < 0)
+            {
+                return null;
+            }
+            int position = v6Offset + found * V6_ENTRY_SIZE;
+            if (compareUnsigned(buffer.getLong(position + 16), buffer.getLong(position + 24), hi, lo) < 0)
+            {
+                return null;
+            }
+            return regions[buffer.getInt(position + 32)];
+        }
+    }
+}
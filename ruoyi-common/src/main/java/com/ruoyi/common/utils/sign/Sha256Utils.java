@@ -0,0 +1,81 @@
+package com.ruoyi.common.utils.sign;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import com.ruoyi.common.exception.UtilException;
+
+/**
+ * SHA-256摘要方法
+ *
+ * @author ruoyi
+ */
+public class Sha256Utils
+{
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    /**
+     * 计算摘要
+     *
+     * @param data 数据
+     * @return 32字节摘要
+     */
+    public static byte[] sha256(byte[] data)
+    {
+        try
+        {
+            return MessageDigest.getInstance("SHA-256").digest(data);
+        }
+        catch (NoSuchAlgorithmException e)
+        {
+            throw new UtilException(e);
+        }
+    }
+
+    /**
+     * 计算字符串摘要
+     *
+     * @param s 字符串
+     * @return 64位十六进制摘要
+     */
+    public static String hash(String s)
+    {
+        return toHex(sha256(s.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * 计算多段数据的摘要（每段前写入长度，避免不同分段拼接后相同）
+     *
+     * @param parts 数据
+     * @return 64位十六进制摘要
+     */
+    public static String hash(byte[]... parts)
+    {
+        try
+        {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (byte[] part : parts)
+            {
+                int length = part.length;
+                digest.update(new byte[] { (byte) (length >>> 24), (byte) (length >>> 16), (byte) (length >>> 8), (byte) length });
+                digest.update(part);
+            }
+            return toHex(digest.digest());
+        }
+        catch (NoSuchAlgorithmException e)
+        {
+            throw new UtilException(e);
+        }
+    }
+
+    private static String toHex(byte[] hash)
+    {
+        char[] buf = new char[hash.length * 2];
+        for (int i = 0; i < hash.length; i++)
+        {
+            buf[i * 2] = HEX_DIGITS[(hash[i] >> 4) & 0xf];
+            buf[i * 2 + 1] = HEX_DIGITS[hash[i] & 0xf];
+        }
+        return new String(buf);
+    }
+}
@@ -1,7 +1,9 @@
 package com.ruoyi.framework.aspectj;
 
+import java.lang.reflect.Method;
 import java.util.Collection;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.apache.commons.lang3.ArrayUtils;
@@ -10,13 +12,14 @@ import org.aspectj.lang.annotation.AfterReturning;
 import org.aspectj.lang.annotation.AfterThrowing;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Before;
+import org.aspectj.lang.reflect.MethodSignature;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.NamedThreadLocal;
 import org.springframework.stereotype.Component;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.multipart.MultipartFile;
-import com.alibaba.fastjson2.JSON;
 import com.ruoyi.common.annotation.Log;
 import com.ruoyi.common.core.domain.entity.SysUser;
 import com.ruoyi.common.core.domain.model.LoginUser;
@@ -29,8 +32,7 @@ import com.ruoyi.common.utils.SecurityUtils;
 import com.ruoyi.common.utils.ServletUtils;
 import com.ruoyi.common.utils.StringUtils;
 import com.ruoyi.common.utils.ip.IpUtils;
-import com.ruoyi.framework.manager.AsyncManager;
-import com.ruoyi.framework.manager.factory.AsyncFactory;
+import com.ruoyi.framework.manager.OperLogWriter;
 import com.ruoyi.system.domain.SysOperLog;
 
 /**
@@ -53,6 +55,15 @@ public class LogAspect
     /** 参数最大长度限制 */
     private static final int PARAM_MAX_LENGTH = 2000;
 
+    /** 返回结果序列化过滤器（仅限制长度） */
+    private static final PropertyPreExcludeFilter RESULT_FILTER = new PropertyPreExcludeFilter().setMaxLength(PARAM_MAX_LENGTH);
+
+    /** 方法 -> 请求参数序列化过滤器 */
+    private final Map<Method, PropertyPreExcludeFilter> paramFilters = new ConcurrentHashMap<>();
+
+    @Autowired
+    private OperLogWriter operLogWriter;
+
     /**
      * 处理请求前执行
      */
@@ -125,7 +136,7 @@ public class LogAspect
             // 设置消耗时间
             operLog.setCostTime(System.currentTimeMillis() - TIME_THREADLOCAL.get());
             // 保存数据库
-            AsyncManager.me().execute(AsyncFactory.recordOper(operLog));
+            operLogWriter.write(operLog);
         }
         catch (Exception exp)
         {
@@ -158,12 +169,14 @@ public class LogAspect
         if (log.isSaveRequestData())
         {
             // 获取参数的信息，传入到数据库中。
-            setRequestValue(joinPoint, operLog, log.excludeParamNames());
+            PropertyPreExcludeFilter filter = paramFilters.computeIfAbsent(((MethodSignature) joinPoint.getSignature()).getMethod(),
+                    method -> excludePropertyPreFilter(log.excludeParamNames()).setMaxLength(PARAM_MAX_LENGTH));
+            setRequestValue(joinPoint, operLog, filter);
         }
         // 是否需要保存response，参数和值
         if (log.isSaveResponseData() && StringUtils.isNotNull(jsonResult))
         {
-            operLog.setJsonResult(StringUtils.substring(JSON.toJSONString(jsonResult), 0, 2000));
+            operLog.setJsonResult(RESULT_FILTER.toJSONString(jsonResult));
         }
     }
 
@@ -171,27 +184,28 @@ public class LogAspect
      * 获取请求的参数，放到log中
      * 
      * @param operLog 操作日志
+     * @param filter 参数过滤器
      * @throws Exception 异常
      */
-    private void setRequestValue(JoinPoint joinPoint, SysOperLog operLog, String[] excludeParamNames) throws Exception
+    private void setRequestValue(JoinPoint joinPoint, SysOperLog operLog, PropertyPreExcludeFilter filter) throws Exception
     {
         String requestMethod = operLog.getRequestMethod();
         Map<?, ?> paramsMap = ServletUtils.getParamMap(ServletUtils.getRequest());
         if (StringUtils.isEmpty(paramsMap) && StringUtils.equalsAny(requestMethod, HttpMethod.PUT.name(), HttpMethod.POST.name(), HttpMethod.DELETE.name()))
         {
-            String params = argsArrayToString(joinPoint.getArgs(), excludeParamNames);
+            String params = argsArrayToString(joinPoint.getArgs(), filter);
             operLog.setOperParam(params);
         }
         else
         {
-            operLog.setOperParam(StringUtils.substring(JSON.toJSONString(paramsMap, excludePropertyPreFilter(excludeParamNames)), 0, PARAM_MAX_LENGTH));
+            operLog.setOperParam(filter.toJSONString(paramsMap));
         }
     }
 
     /**
      * 参数拼装
      */
-    private String argsArrayToString(Object[] paramsArray, String[] excludeParamNames)
+    private String argsArrayToString(Object[] paramsArray, PropertyPreExcludeFilter filter)
     {
         StringBuilder params = new StringBuilder();
         if (paramsArray != null && paramsArray.length > 0)
@@ -202,7 +216,7 @@ public class LogAspect
                 {
                     try
                     {
-                        String jsonObj = JSON.toJSONString(o, excludePropertyPreFilter(excludeParamNames));
+                        String jsonObj = filter.toJSONString(o);
                         params.append(jsonObj).append(" ");
                         if (params.length() >= PARAM_MAX_LENGTH)
                         {
@@ -1,8 +1,6 @@
 package com.ruoyi.framework.aspectj;
 
 import java.lang.reflect.Method;
-import java.util.Collections;
-import java.util.List;
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Before;
@@ -10,14 +8,12 @@ import org.aspectj.lang.reflect.MethodSignature;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Component;
 import com.ruoyi.common.annotation.RateLimiter;
 import com.ruoyi.common.enums.LimitType;
 import com.ruoyi.common.exception.ServiceException;
-import com.ruoyi.common.utils.StringUtils;
 import com.ruoyi.common.utils.ip.IpUtils;
+import com.ruoyi.framework.web.service.RateLimiterService;
 
 /**
  * 限流处理
@@ -30,21 +26,8 @@ public class RateLimiterAspect
 {
     private static final Logger log = LoggerFactory.getLogger(RateLimiterAspect.class);
 
-    private RedisTemplate<Object, Object> redisTemplate;
-
-    private RedisScript<Long> limitScript;
-
-    @Autowired
-    public void setRedisTemplate1(RedisTemplate<Object, Object> redisTemplate)
-    {
-        this.redisTemplate = redisTemplate;
-    }
-
     @Autowired
-    public void setLimitScript(RedisScript<Long> limitScript)
-    {
-        this.limitScript = limitScript;
-    }
+    private RateLimiterService rateLimiterService;
 
     @Before("@annotation(rateLimiter)")
     public void doBefore(JoinPoint point, RateLimiter rateLimiter) throws Throwable
@@ -53,24 +36,21 @@ public class RateLimiterAspect
         int count = rateLimiter.count();
 
         String combineKey = getCombineKey(rateLimiter, point);
-        List<Object> keys = Collections.singletonList(combineKey);
+        boolean permitted;
         try
         {
-            Long number = redisTemplate.execute(limitScript, keys, count, time);
-            if (StringUtils.isNull(number) || number.intValue() > count)
-            {
-                throw new ServiceException("访问过于频繁，请稍候再试");
-            }
-            log.info("限制请求'{}',当前请求'{}',缓存key'{}'", count, number.intValue(), combineKey);
-        }
-        catch (ServiceException e)
-        {
-            throw e;
+            permitted = rateLimiterService.tryAcquire(combineKey, rateLimiter.algorithm(), count, time);
         }
         catch (Exception e)
         {
+            log.error("限流异常'{}',缓存key'{}'", e.getMessage(), combineKey);
             throw new RuntimeException("服务器限流异常，请稍候再试");
         }
+        if (!permitted)
+        {
+            log.debug("限制请求'{}',缓存key'{}'", count, combineKey);
+            throw new ServiceException("访问过于频繁，请稍候再试");
+        }
     }
 
     public String getCombineKey(RateLimiter rateLimiter, JoinPoint point)
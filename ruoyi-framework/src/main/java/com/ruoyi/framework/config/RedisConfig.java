@@ -1,5 +1,6 @@
 package com.ruoyi.framework.config;
 
+import java.util.List;
 import org.springframework.cache.annotation.CachingConfigurerSupport;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
@@ -7,6 +8,7 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 /**
@@ -40,31 +42,94 @@ public class RedisConfig extends CachingConfigurerSupport
         return template;
     }
 
+    /**
+     * redis消息监听容器（用于多节点间本地缓存失效通知）
+     */
     @Bean
-    public DefaultRedisScript<Long> limitScript()
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory)
     {
-        DefaultRedisScript<Long> redisScript = new DefaultRedisScript<>();
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        return container;
+    }
+
+    /**
+     * 限流配额租借脚本，返回 {本次租借数量, 无配额时建议的等待毫秒数, 租借成功时当前窗口剩余毫秒数}
+     */
+    @Bean
+    @SuppressWarnings("rawtypes")
+    public DefaultRedisScript<List> limitScript()
+    {
+        DefaultRedisScript<List> redisScript = new DefaultRedisScript<>();
         redisScript.setScriptText(limitScriptText());
-        redisScript.setResultType(Long.class);
+        redisScript.setResultType(List.class);
         return redisScript;
     }
 
     /**
      * 限流脚本
+     * 
+     * ARGV：算法（0 固定窗口，1 令牌桶，2 滑动窗口）、限流次数、时间窗口（秒）、申请数量。
+     * 剩余配额不足申请数量两倍时只租借1个，接近上限时各节点逐个申请，保证集群总量不超限。
      */
     private String limitScriptText()
     {
         return "local key = KEYS[1]\n" +
-                "local count = tonumber(ARGV[1])\n" +
-                "local time = tonumber(ARGV[2])\n" +
-                "local current = redis.call('get', key);\n" +
-                "if current and tonumber(current) > count then\n" +
-                "    return tonumber(current);\n" +
-                "end\n" +
-                "current = redis.call('incr', key)\n" +
-                "if tonumber(current) == 1 then\n" +
-                "    redis.call('expire', key, time)\n" +
+                "local algorithm = tonumber(ARGV[1])\n" +
+                "local count = tonumber(ARGV[2])\n" +
+                "local period = tonumber(ARGV[3]) * 1000\n" +
+                "local requested = tonumber(ARGV[4])\n" +
+                "local t = redis.call('time')\n" +
+                "local now = tonumber(t[1]) * 1000 + math.floor(tonumber(t[2]) / 1000)\n" +
+                "local function lease(available)\n" +
+                "    if available <= 0 then return 0 end\n" +
+                "    if available < requested * 2 then return 1 end\n" +
+                "    return requested\n" +
                 "end\n" +
-                "return tonumber(current);";
+                "if algorithm == 1 then\n" +
+                "    local data = redis.call('hmget', key, 'tokens', 'ts')\n" +
+                "    local tokens = tonumber(data[1]) or count\n" +
+                "    local ts = tonumber(data[2]) or now\n" +
+                "    tokens = math.min(count, tokens + math.max(0, now - ts) * count / period)\n" +
+                "    local grant = lease(math.floor(tokens))\n" +
+                "    tokens = tokens - grant\n" +
+                "    redis.call('hset', key, 'tokens', tostring(tokens), 'ts', now)\n" +
+                "    redis.call('pexpire', key, period)\n" +
+                "    if grant > 0 then return {grant, 0, period} end\n" +
+                "    return {0, math.ceil((1 - tokens) * period / count)}\n" +
+                "elseif algorithm == 2 then\n" +
+                "    local window = math.floor(now / period)\n" +
+                "    local data = redis.call('hmget', key, 'w', 'c', 'p')\n" +
+                "    local w = tonumber(data[1])\n" +
+                "    local c = tonumber(data[2]) or 0\n" +
+                "    local p = tonumber(data[3]) or 0\n" +
+                "    if w == nil or w < window - 1 then\n" +
+                "        c = 0\n" +
+                "        p = 0\n" +
+                "    elseif w == window - 1 then\n" +
+                "        p = c\n" +
+                "        c = 0\n" +
+                "    end\n" +
+                "    local elapsed = now - window * period\n" +
+                "    local grant = lease(math.floor(count - p * (period - elapsed) / period - c))\n" +
+                "    c = c + grant\n" +
+                "    redis.call('hset', key, 'w', window, 'c', c, 'p', p)\n" +
+                "    redis.call('pexpire', key, period * 2)\n" +
+                "    if grant > 0 then return {grant, 0, period - elapsed} end\n" +
+                "    if p == 0 then return {0, period - elapsed} end\n" +
+                "    return {0, math.max(1, math.min(period - elapsed, math.ceil(period / p)))}\n" +
+                "else\n" +
+                "    local current = tonumber(redis.call('get', key) or '0')\n" +
+                "    local grant = lease(count - current)\n" +
+                "    if grant == 0 then\n" +
+                "        local ttl = redis.call('pttl', key)\n" +
+                "        if ttl < 0 then ttl = period end\n" +
+                "        return {0, ttl}\n" +
+                "    end\n" +
+                "    if redis.call('incrby', key, grant) == grant then\n" +
+                "        redis.call('pexpire', key, period)\n" +
+                "    end\n" +
+                "    return {grant, 0, redis.call('pttl', key)}\n" +
+                "end";
     }
 }
@@ -0,0 +1,308 @@
+package com.ruoyi.framework.manager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 批量写入器
+ *
+ * 数据先进入有界队列，由单个写入线程按条数或时间间隔批量取出后交给处理方法，队列满时按溢出策略处理。
+ * 整批处理失败时改为逐条重试，只有重试仍失败的数据计为失败，处理方法需支持对同一数据重复调用。
+ *
+ * @author ruoyi
+ */
+public class BatchWriter<T>
+{
+    private static final Logger log = LoggerFactory.getLogger(BatchWriter.class);
+
+    /**
+     * 队列满时的处理策略
+     */
+    public enum OverflowPolicy
+    {
+        /** 阻塞等待，超时后丢弃当前数据 */
+        BLOCK,
+        /** 丢弃队列中最早的数据 */
+        DROP_OLDEST,
+        /** 丢弃当前数据 */
+        DISCARD;
+
+        public static OverflowPolicy of(String policy)
+        {
+            for (OverflowPolicy value : values())
+            {
+                if (value.name().replace("_", "").equalsIgnoreCase(policy))
+                {
+                    return value;
+                }
+            }
+            return BLOCK;
+        }
+    }
+
+    private final String name;
+
+    private final int batchSize;
+
+    private final long flushInterval;
+
+    private final long blockTimeout;
+
+    private final OverflowPolicy overflowPolicy;
+
+    private final Consumer<List<T>> handler;
+
+    private final BlockingQueue<T> queue;
+
+    private final Thread thread;
+
+    private volatile boolean running = true;
+
+    private final AtomicLong offeredCount = new AtomicLong();
+
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    private final AtomicLong writtenCount = new AtomicLong();
+
+    private final AtomicLong failedCount = new AtomicLong();
+
+    private final AtomicLong flushCount = new AtomicLong();
+
+    private final AtomicLong flushNanos = new AtomicLong();
+
+    private volatile long lastFlushNanos;
+
+    private volatile long maxFlushNanos;
+
+    /**
+     * @param name 名称（用于线程名与日志）
+     * @param capacity 队列容量
+     * @param batchSize 单批最大条数
+     * @param flushInterval 刷新间隔（毫秒）
+     * @param blockTimeout 阻塞策略下的最长等待时间（毫秒）
+     * @param overflowPolicy 队列满时的处理策略
+     * @param handler 批量处理方法
+     */
+    public BatchWriter(String name, int capacity, int batchSize, long flushInterval, long blockTimeout,
+            OverflowPolicy overflowPolicy, Consumer<List<T>> handler)
+    {
+        this.name = name;
+        this.batchSize = Math.max(1, batchSize);
+        this.flushInterval = Math.max(1, flushInterval);
+        this.blockTimeout = blockTimeout;
+        this.overflowPolicy = overflowPolicy;
+        this.handler = handler;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.thread = new Thread(this::run, "batch-writer-" + name);
+        this.thread.setDaemon(true);
+    }
+
+    public void start()
+    {
+        thread.start();
+    }
+
+    /**
+     * 写入数据
+     *
+     * @param item 数据
+     * @return 是否进入队列
+     */
+    public boolean offer(T item)
+    {
+        offeredCount.incrementAndGet();
+        if (!running)
+        {
+            droppedCount.incrementAndGet();
+            return false;
+        }
+        if (queue.offer(item))
+        {
+            return true;
+        }
+        boolean accepted = false;
+        switch (overflowPolicy)
+        {
+            case DROP_OLDEST:
+                while (!accepted)
+                {
+                    if (queue.poll() != null)
+                    {
+                        droppedCount.incrementAndGet();
+                    }
+                    accepted = queue.offer(item);
+                }
+                return true;
+            case BLOCK:
+                try
+                {
+                    accepted = queue.offer(item, blockTimeout, TimeUnit.MILLISECONDS);
+                }
+                catch (InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+                }
+                break;
+            default:
+                break;
+        }
+        if (!accepted)
+        {
+            droppedCount.incrementAndGet();
+        }
+        return accepted;
+    }
+
+    /**
+     * 停止写入，并写完队列中剩余数据
+     *
+     * @param timeout 最长等待时间（毫秒）
+     */
+    public void shutdown(long timeout)
+    {
+        // 不中断写入线程，避免打断正在执行的数据库操作，线程最多在一个刷新间隔后退出
+        running = false;
+        try
+        {
+            thread.join(timeout);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 获取运行统计信息
+     *
+     * @return 队列深度、写入、丢弃、刷新耗时等
+     */
+    public Map<String, Object> getStatistics()
+    {
+        long flushes = flushCount.get();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("name", name);
+        result.put("overflowPolicy", overflowPolicy.name());
+        result.put("queueSize", queue.size());
+        result.put("queueCapacity", queue.size() + queue.remainingCapacity());
+        result.put("offeredCount", offeredCount.get());
+        result.put("droppedCount", droppedCount.get());
+        result.put("writtenCount", writtenCount.get());
+        result.put("failedCount", failedCount.get());
+        result.put("flushCount", flushes);
+        result.put("lastFlushMillis", toMillis(lastFlushNanos));
+        result.put("maxFlushMillis", toMillis(maxFlushNanos));
+        result.put("avgFlushMillis", flushes == 0 ? 0 : toMillis(flushNanos.get() / flushes));
+        return result;
+    }
+
+    private void run()
+    {
+        List<T> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty())
+        {
+            try
+            {
+                T first = running ? queue.poll(flushInterval, TimeUnit.MILLISECONDS) : queue.poll();
+                if (first == null)
+                {
+                    continue;
+                }
+                batch.add(first);
+                // 未满一批时继续等待，直到达到刷新间隔
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushInterval);
+                while (batch.size() < batchSize)
+                {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0 || !running)
+                    {
+                        break;
+                    }
+                    T next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null)
+                    {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+            if (!batch.isEmpty())
+            {
+                flush(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+    }
+
+    private void flush(List<T> batch)
+    {
+        long start = System.nanoTime();
+        try
+        {
+            handler.accept(batch);
+            writtenCount.addAndGet(batch.size());
+        }
+        catch (Exception e)
+        {
+            if (batch.size() == 1)
+            {
+                failedCount.incrementAndGet();
+                log.error("写入{}异常'{}'", name, e.getMessage());
+            }
+            else
+            {
+                log.warn("批量写入{}异常'{}'，改为逐条写入", name, e.getMessage());
+                flushEach(batch);
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        flushCount.incrementAndGet();
+        flushNanos.addAndGet(elapsed);
+        lastFlushNanos = elapsed;
+        if (elapsed > maxFlushNanos)
+        {
+            maxFlushNanos = elapsed;
+        }
+    }
+
+    /**
+     * 逐条写入，单条失败不影响同批次的其他数据
+     */
+    private void flushEach(List<T> batch)
+    {
+        for (T item : batch)
+        {
+            try
+            {
+                handler.accept(Collections.singletonList(item));
+                writtenCount.incrementAndGet();
+            }
+            catch (Exception e)
+            {
+                failedCount.incrementAndGet();
+                log.error("写入{}异常'{}'", name, e.getMessage());
+            }
+        }
+    }
+
+    private static double toMillis(long nanos)
+    {
+        return nanos / 1000000.0;
+    }
+}
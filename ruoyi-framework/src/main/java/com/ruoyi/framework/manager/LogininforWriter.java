@@ -0,0 +1,178 @@
+package com.ruoyi.framework.manager;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import com.ruoyi.common.constant.Constants;
+import com.ruoyi.common.utils.LogUtils;
+import com.ruoyi.common.utils.ServletUtils;
+import com.ruoyi.common.utils.StringUtils;
+import com.ruoyi.common.utils.http.UserAgentUtils;
+import com.ruoyi.common.utils.ip.AddressUtils;
+import com.ruoyi.common.utils.ip.IpUtils;
+import com.ruoyi.framework.manager.BatchWriter.OverflowPolicy;
+import com.ruoyi.system.domain.SysLogininfor;
+import com.ruoyi.system.service.ISysLogininforService;
+
+/**
+ * 登录日志批量写入
+ *
+ * 同一批次内相同IP只查询一次登录地点，相同User-Agent只解析一次浏览器与操作系统。
+ * 登录事件只转换并打印一次，整批写入失败后逐条重试时直接写入已转换的记录。
+ *
+ * @author ruoyi
+ */
+@Component
+public class LogininforWriter
+{
+    private static final Logger sys_user_logger = LoggerFactory.getLogger("sys-user");
+
+    // 队列容量
+    @Value("${logWriter.queueCapacity:10000}")
+    private int queueCapacity;
+
+    // 单批最大条数
+    @Value("${logWriter.batchSize:200}")
+    private int batchSize;
+
+    // 刷新间隔（毫秒）
+    @Value("${logWriter.flushInterval:1000}")
+    private long flushInterval;
+
+    // 队列满时的处理策略
+    @Value("${logWriter.overflowPolicy:block}")
+    private String overflowPolicy;
+
+    // 阻塞策略下的最长等待时间（毫秒）
+    @Value("${logWriter.blockTimeout:100}")
+    private long blockTimeout;
+
+    @Autowired
+    private ISysLogininforService logininforService;
+
+    private BatchWriter<LoginEvent> writer;
+
+    @PostConstruct
+    public void init()
+    {
+        writer = new BatchWriter<>("logininfor", queueCapacity, batchSize, flushInterval, blockTimeout,
+                OverflowPolicy.of(overflowPolicy), this::flush);
+        writer.start();
+    }
+
+    /**
+     * 记录登录信息（请求信息在当前线程采集）
+     *
+     * @param username 用户名
+     * @param status 状态
+     * @param message 消息
+     * @param args 列表
+     */
+    public void write(final String username, final String status, final String message, final Object... args)
+    {
+        LoginEvent event = new LoginEvent();
+        event.username = username;
+        event.status = status;
+        event.message = message;
+        event.args = args;
+        event.userAgent = ServletUtils.getRequest().getHeader("User-Agent");
+        event.ip = IpUtils.getIpAddr();
+        event.time = new Date();
+        writer.offer(event);
+    }
+
+    /**
+     * 获取运行统计信息
+     */
+    public Map<String, Object> getStatistics()
+    {
+        return writer.getStatistics();
+    }
+
+    @PreDestroy
+    public void destroy()
+    {
+        writer.shutdown(flushInterval * 5);
+    }
+
+    private void flush(List<LoginEvent> events)
+    {
+        Map<String, String> addresses = new HashMap<>();
+        Map<String, String[]> userAgents = new HashMap<>();
+        List<SysLogininfor> logininfors = new ArrayList<>(events.size());
+        for (LoginEvent event : events)
+        {
+            if (StringUtils.isNotNull(event.logininfor))
+            {
+                logininfors.add(event.logininfor);
+                continue;
+            }
+            String address = addresses.computeIfAbsent(StringUtils.nvl(event.ip, StringUtils.EMPTY), AddressUtils::getRealAddressByIP);
+            StringBuilder s = new StringBuilder();
+            s.append(LogUtils.getBlock(event.ip));
+            s.append(address);
+            s.append(LogUtils.getBlock(event.username));
+            s.append(LogUtils.getBlock(event.status));
+            s.append(LogUtils.getBlock(event.message));
+            // 打印信息到日志
+            sys_user_logger.info(s.toString(), event.args);
+            // 获取客户端浏览器与操作系统
+            String[] agent = userAgents.computeIfAbsent(StringUtils.nvl(event.userAgent, StringUtils.EMPTY),
+                    ua -> new String[] { UserAgentUtils.getBrowser(ua), UserAgentUtils.getOperatingSystem(ua) });
+            // 封装对象
+            SysLogininfor logininfor = new SysLogininfor();
+            logininfor.setUserName(event.username);
+            logininfor.setIpaddr(event.ip);
+            logininfor.setLoginLocation(address);
+            logininfor.setBrowser(agent[0]);
+            logininfor.setOs(agent[1]);
+            logininfor.setMsg(event.message);
+            logininfor.setLoginTime(event.time);
+            // 日志状态
+            if (StringUtils.equalsAny(event.status, Constants.LOGIN_SUCCESS, Constants.LOGOUT, Constants.REGISTER))
+            {
+                logininfor.setStatus(Constants.SUCCESS);
+            }
+            else if (Constants.LOGIN_FAIL.equals(event.status))
+            {
+                logininfor.setStatus(Constants.FAIL);
+            }
+            event.logininfor = logininfor;
+            logininfors.add(logininfor);
+        }
+        // 插入数据
+        logininforService.insertLogininforBatch(logininfors);
+    }
+
+    /**
+     * 待写入的登录事件
+     */
+    private static class LoginEvent
+    {
+        private String username;
+
+        private String status;
+
+        private String message;
+
+        private Object[] args;
+
+        private String userAgent;
+
+        private String ip;
+
+        private Date time;
+
+        /** 已转换的登录记录 */
+        private SysLogininfor logininfor;
+    }
+}
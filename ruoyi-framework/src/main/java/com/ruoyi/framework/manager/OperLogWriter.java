@@ -0,0 +1,103 @@
+package com.ruoyi.framework.manager;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import com.ruoyi.common.utils.StringUtils;
+import com.ruoyi.common.utils.ip.AddressUtils;
+import com.ruoyi.framework.manager.BatchWriter.OverflowPolicy;
+import com.ruoyi.system.domain.SysOperLog;
+import com.ruoyi.system.service.ISysOperLogService;
+
+/**
+ * 操作日志批量写入
+ *
+ * @author ruoyi
+ */
+@Component
+public class OperLogWriter
+{
+    // 队列容量
+    @Value("${logWriter.queueCapacity:10000}")
+    private int queueCapacity;
+
+    // 单批最大条数
+    @Value("${logWriter.batchSize:200}")
+    private int batchSize;
+
+    // 刷新间隔（毫秒）
+    @Value("${logWriter.flushInterval:1000}")
+    private long flushInterval;
+
+    // 队列满时的处理策略
+    @Value("${logWriter.overflowPolicy:block}")
+    private String overflowPolicy;
+
+    // 阻塞策略下的最长等待时间（毫秒）
+    @Value("${logWriter.blockTimeout:100}")
+    private long blockTimeout;
+
+    @Autowired
+    private ISysOperLogService operLogService;
+
+    private BatchWriter<SysOperLog> writer;
+
+    @PostConstruct
+    public void init()
+    {
+        writer = new BatchWriter<>("oper-log", queueCapacity, batchSize, flushInterval, blockTimeout,
+                OverflowPolicy.of(overflowPolicy), this::flush);
+        writer.start();
+    }
+
+    /**
+     * 记录操作日志
+     *
+     * @param operLog 操作日志
+     */
+    public void write(SysOperLog operLog)
+    {
+        // 批量写入有延迟，操作时间在记录时确定
+        if (StringUtils.isNull(operLog.getOperTime()))
+        {
+            operLog.setOperTime(new Date());
+        }
+        writer.offer(operLog);
+    }
+
+    /**
+     * 获取运行统计信息
+     */
+    public Map<String, Object> getStatistics()
+    {
+        return writer.getStatistics();
+    }
+
+    @PreDestroy
+    public void destroy()
+    {
+        writer.shutdown(flushInterval * 5);
+    }
+
+    private void flush(List<SysOperLog> operLogs)
+    {
+        // 同一批次中相同IP只查询一次操作地点，逐条重试时不再重复查询
+        Map<String, String> locations = new HashMap<>();
+        for (SysOperLog operLog : operLogs)
+        {
+            if (StringUtils.isNotNull(operLog.getOperLocation()))
+            {
+                continue;
+            }
+            String ip = StringUtils.nvl(operLog.getOperIp(), StringUtils.EMPTY);
+            operLog.setOperLocation(locations.computeIfAbsent(ip, AddressUtils::getRealAddressByIP));
+        }
+        operLogService.insertOperlogBatch(operLogs);
+    }
+}
@@ -0,0 +1,183 @@
+package com.ruoyi.framework.web.domain;
+
+import java.util.Map;
+import com.ruoyi.common.core.domain.entity.SysUser;
+
+/**
+ * 登录会话存储格式（redis中保存的紧凑结构）
+ *
+ * 权限集合不随会话保存，只保存其摘要，权限集合按摘要在redis中共享存储一份
+ *
+ * @author ruoyi
+ */
+public class LoginSession
+{
+    /** 用户ID */
+    private Long userId;
+
+    /** 部门ID */
+    private Long deptId;
+
+    /** 用户唯一标识 */
+    private String token;
+
+    /** 登录时间 */
+    private Long loginTime;
+
+    /** 过期时间 */
+    private Long expireTime;
+
+    /** 登录IP地址 */
+    private String ipaddr;
+
+    /** 登录地点 */
+    private String loginLocation;
+
+    /** 浏览器类型 */
+    private String browser;
+
+    /** 操作系统 */
+    private String os;
+
+    /** 权限集合摘要 */
+    private String permissionsKey;
+
+    /** 权限版本号 */
+    private Long permissionVersion;
+
+    /** 各角色权限集合摘要（角色ID -> 摘要） */
+    private Map<String, String> rolePermissionsKeys;
+
+    /** 用户信息（角色不含权限集合） */
+    private SysUser user;
+
+    public Long getUserId()
+    {
+        return userId;
+    }
+
+    public void setUserId(Long userId)
+    {
+        this.userId = userId;
+    }
+
+    public Long getDeptId()
+    {
+        return deptId;
+    }
+
+    public void setDeptId(Long deptId)
+    {
+        this.deptId = deptId;
+    }
+
+    public String getToken()
+    {
+        return token;
+    }
+
+    public void setToken(String token)
+    {
+        this.token = token;
+    }
+
+    public Long getLoginTime()
+    {
+        return loginTime;
+    }
+
+    public void setLoginTime(Long loginTime)
+    {
+        this.loginTime = loginTime;
+    }
+
+    public Long getExpireTime()
+    {
+        return expireTime;
+    }
+
+    public void setExpireTime(Long expireTime)
+    {
+        this.expireTime = expireTime;
+    }
+
+    public String getIpaddr()
+    {
+        return ipaddr;
+    }
+
+    public void setIpaddr(String ipaddr)
+    {
+        this.ipaddr = ipaddr;
+    }
+
+    public String getLoginLocation()
+    {
+        return loginLocation;
+    }
+
+    public void setLoginLocation(String loginLocation)
+    {
+        this.loginLocation = loginLocation;
+    }
+
+    public String getBrowser()
+    {
+        return browser;
+    }
+
+    public void setBrowser(String browser)
+    {
+        this.browser = browser;
+    }
+
+    public String getOs()
+    {
+        return os;
+    }
+
+    public void setOs(String os)
+    {
+        this.os = os;
+    }
+
+    public String getPermissionsKey()
+    {
+        return permissionsKey;
+    }
+
+    public void setPermissionsKey(String permissionsKey)
+    {
+        this.permissionsKey = permissionsKey;
+    }
+
+    public Long getPermissionVersion()
+    {
+        return permissionVersion;
+    }
+
+    public void setPermissionVersion(Long permissionVersion)
+    {
+        this.permissionVersion = permissionVersion;
+    }
+
+    public Map<String, String> getRolePermissionsKeys()
+    {
+        return rolePermissionsKeys;
+    }
+
+    public void setRolePermissionsKeys(Map<String, String> rolePermissionsKeys)
+    {
+        this.rolePermissionsKeys = rolePermissionsKeys;
+    }
+
+    public SysUser getUser()
+    {
+        return user;
+    }
+
+    public void setUser(SysUser user)
+    {
+        this.user = user;
+    }
+}
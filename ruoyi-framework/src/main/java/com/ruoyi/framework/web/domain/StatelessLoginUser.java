@@ -0,0 +1,147 @@
+package com.ruoyi.framework.web.domain;
+
+import java.util.Set;
+import java.util.function.Function;
+import com.alibaba.fastjson2.annotation.JSONField;
+import com.ruoyi.common.constant.HttpStatus;
+import com.ruoyi.common.core.domain.entity.SysUser;
+import com.ruoyi.common.core.domain.model.LoginUser;
+import com.ruoyi.common.exception.ServiceException;
+import com.ruoyi.common.utils.StringUtils;
+
+/**
+ * 无状态令牌登录用户
+ *
+ * 用户ID、部门ID、用户名、权限与过期时间取自令牌声明，认证时无需访问redis；
+ * 用户信息、登录地点等其余字段在首次使用时才从会话加载，会话已不存在时视为未登录。
+ *
+ * @author ruoyi
+ */
+public class StatelessLoginUser extends LoginUser
+{
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 令牌中的用户名
+     */
+    private final String username;
+
+    /**
+     * 会话加载方法（令牌uuid -> 完整用户信息）
+     */
+    private final transient Function<String, LoginUser> loader;
+
+    private volatile boolean loaded;
+
+    public StatelessLoginUser(String token, Long userId, Long deptId, String username, Long expireTime,
+            Set<String> permissions, Function<String, LoginUser> loader)
+    {
+        setToken(token);
+        setUserId(userId);
+        setDeptId(deptId);
+        setExpireTime(expireTime);
+        setPermissions(permissions);
+        this.username = username;
+        this.loader = loader;
+    }
+
+    @Override
+    public String getUsername()
+    {
+        return username;
+    }
+
+    @JSONField(serialize = false)
+    @Override
+    public String getPassword()
+    {
+        load();
+        return super.getPassword();
+    }
+
+    @Override
+    public SysUser getUser()
+    {
+        load();
+        return super.getUser();
+    }
+
+    @Override
+    public void setUser(SysUser user)
+    {
+        load();
+        super.setUser(user);
+    }
+
+    @Override
+    public Long getLoginTime()
+    {
+        load();
+        return super.getLoginTime();
+    }
+
+    @Override
+    public String getIpaddr()
+    {
+        load();
+        return super.getIpaddr();
+    }
+
+    @Override
+    public String getLoginLocation()
+    {
+        load();
+        return super.getLoginLocation();
+    }
+
+    @Override
+    public String getBrowser()
+    {
+        load();
+        return super.getBrowser();
+    }
+
+    @Override
+    public String getOs()
+    {
+        load();
+        return super.getOs();
+    }
+
+    /**
+     * 首次使用时从会话加载完整用户信息
+     *
+     * @throws ServiceException 会话已不存在（被清理或淘汰）
+     */
+    private void load()
+    {
+        if (loaded)
+        {
+            return;
+        }
+        synchronized (this)
+        {
+            if (loaded)
+            {
+                return;
+            }
+            LoginUser loginUser = StringUtils.isNotNull(loader) ? loader.apply(getToken()) : null;
+            if (StringUtils.isNull(loginUser) || StringUtils.isNull(loginUser.getUser()))
+            {
+                // 不返回缺少用户信息的登录用户，避免数据权限等按用户过滤的逻辑被跳过
+                throw new ServiceException("登录状态已过期", HttpStatus.UNAUTHORIZED);
+            }
+            super.setUser(loginUser.getUser());
+            setLoginTime(loginUser.getLoginTime());
+            setIpaddr(loginUser.getIpaddr());
+            setLoginLocation(loginUser.getLoginLocation());
+            setBrowser(loginUser.getBrowser());
+            setOs(loginUser.getOs());
+            if (StringUtils.isNull(super.getPermissions()))
+            {
+                setPermissions(loginUser.getPermissions());
+            }
+            loaded = true;
+        }
+    }
+}
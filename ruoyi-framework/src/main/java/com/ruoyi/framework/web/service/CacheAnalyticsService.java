@@ -0,0 +1,238 @@
+package com.ruoyi.framework.web.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+import com.ruoyi.common.core.redis.RedisCache;
+
+/**
+ * 缓存分析服务
+ *
+ * 通过 SCAN 遍历一次键空间并按缓存前缀归类计数，每个前缀抽样若干键（蓄水池抽样），
+ * 以脚本批量执行 MEMORY USAGE 与 PTTL，统计估算内存、value大小分位、过期时间分布与最大的键。
+ *
+ * @author ruoyi
+ */
+@Component
+public class CacheAnalyticsService
+{
+    /** 未匹配任何前缀的键 */
+    public static final String OTHER_PREFIX = "other";
+
+    /** 单次脚本调用处理的键数量 */
+    private static final int SCRIPT_BATCH_SIZE = 100;
+
+    /** 每个前缀返回的最大键数量 */
+    private static final int TOP_KEYS = 10;
+
+    /**
+     * 返回 {大小1, 剩余毫秒1, 大小2, 剩余毫秒2, ...}，键不存在时大小为-1
+     */
+    @SuppressWarnings("rawtypes")
+    private static final DefaultRedisScript<List> SAMPLE_SCRIPT = new DefaultRedisScript<>(
+            "local result = {}\n" +
+            "for i, key in ipairs(KEYS) do\n" +
+            "    result[#result + 1] = redis.call('memory', 'usage', key) or -1\n" +
+            "    result[#result + 1] = redis.call('pttl', key)\n" +
+            "end\n" +
+            "return result", List.class);
+
+    @Autowired
+    private RedisCache redisCache;
+
+    @Autowired
+    private RedisTemplate<Object, Object> redisTemplate;
+
+    /**
+     * 按前缀分析缓存
+     *
+     * @param prefixes 缓存前缀与名称
+     * @param sampleSize 每个前缀抽样的键数量
+     * @return 各前缀的统计信息
+     */
+    public List<Map<String, Object>> analyze(Map<String, String> prefixes, int sampleSize)
+    {
+        Map<String, PrefixStats> stats = new LinkedHashMap<>();
+        for (Map.Entry<String, String> entry : prefixes.entrySet())
+        {
+            stats.put(entry.getKey(), new PrefixStats(entry.getKey(), entry.getValue(), sampleSize));
+        }
+        PrefixStats other = new PrefixStats(OTHER_PREFIX, "其他", sampleSize);
+        redisCache.scanKeys("*", RedisCache.SCAN_COUNT, keys -> {
+            for (String key : keys)
+            {
+                matchPrefix(stats, key, other).offer(key);
+            }
+        });
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (PrefixStats prefixStats : stats.values())
+        {
+            result.add(measure(prefixStats));
+        }
+        if (other.keyCount > 0)
+        {
+            result.add(measure(other));
+        }
+        return result;
+    }
+
+    private static PrefixStats matchPrefix(Map<String, PrefixStats> stats, String key, PrefixStats other)
+    {
+        for (PrefixStats prefixStats : stats.values())
+        {
+            if (key.startsWith(prefixStats.prefix))
+            {
+                return prefixStats;
+            }
+        }
+        return other;
+    }
+
+    /**
+     * 对抽样的键批量读取内存占用与过期时间并汇总
+     */
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> measure(PrefixStats stats)
+    {
+        List<long[]> sizes = new ArrayList<>();
+        long[] ttlBuckets = new long[5];
+        List<String> samples = stats.samples;
+        for (int i = 0; i < samples.size(); i += SCRIPT_BATCH_SIZE)
+        {
+            List<Object> keys = new ArrayList<>(samples.subList(i, Math.min(samples.size(), i + SCRIPT_BATCH_SIZE)));
+            List<Object> values = redisTemplate.execute(SAMPLE_SCRIPT, keys);
+            if (values == null)
+            {
+                continue;
+            }
+            for (int j = 0; j + 1 < values.size(); j += 2)
+            {
+                long size = ((Number) values.get(j)).longValue();
+                long ttl = ((Number) values.get(j + 1)).longValue();
+                if (size < 0 || ttl == -2)
+                {
+                    // 抽样后已过期或被删除
+                    continue;
+                }
+                sizes.add(new long[] { i + j / 2, size });
+                ttlBuckets[ttlBucket(ttl)]++;
+            }
+        }
+
+        long sampleBytes = 0;
+        List<Long> sorted = new ArrayList<>(sizes.size());
+        for (long[] size : sizes)
+        {
+            sampleBytes += size[1];
+            sorted.add(size[1]);
+        }
+        Collections.sort(sorted);
+        sizes.sort(Comparator.comparingLong((long[] size) -> size[1]).reversed());
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("prefix", stats.prefix);
+        result.put("remark", stats.remark);
+        result.put("keyCount", stats.keyCount);
+        result.put("sampleCount", sorted.size());
+        result.put("avgBytes", sorted.isEmpty() ? 0 : sampleBytes / sorted.size());
+        result.put("estimatedBytes", sorted.isEmpty() ? 0 : sampleBytes * stats.keyCount / sorted.size());
+        result.put("p50Bytes", percentile(sorted, 0.50));
+        result.put("p99Bytes", percentile(sorted, 0.99));
+        result.put("maxBytes", sorted.isEmpty() ? 0 : sorted.get(sorted.size() - 1));
+
+        Map<String, Long> ttl = new LinkedHashMap<>();
+        ttl.put("persistent", ttlBuckets[0]);
+        ttl.put("lt1m", ttlBuckets[1]);
+        ttl.put("lt1h", ttlBuckets[2]);
+        ttl.put("lt1d", ttlBuckets[3]);
+        ttl.put("ge1d", ttlBuckets[4]);
+        result.put("ttl", ttl);
+
+        List<Map<String, Object>> bigKeys = new ArrayList<>();
+        for (long[] size : sizes.subList(0, Math.min(TOP_KEYS, sizes.size())))
+        {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("key", samples.get((int) size[0]));
+            item.put("bytes", size[1]);
+            bigKeys.add(item);
+        }
+        result.put("bigKeys", bigKeys);
+        return result;
+    }
+
+    private static int ttlBucket(long ttl)
+    {
+        if (ttl < 0)
+        {
+            return 0;
+        }
+        if (ttl < 60 * 1000L)
+        {
+            return 1;
+        }
+        if (ttl < 60 * 60 * 1000L)
+        {
+            return 2;
+        }
+        return ttl < 24 * 60 * 60 * 1000L ? 3 : 4;
+    }
+
+    private static long percentile(List<Long> sorted, double percent)
+    {
+        if (sorted.isEmpty())
+        {
+            return 0;
+        }
+        int index = (int) Math.ceil(percent * sorted.size()) - 1;
+        return sorted.get(Math.min(Math.max(index, 0), sorted.size() - 1));
+    }
+
+    /**
+     * 单个前缀的计数与抽样
+     */
+    private static class PrefixStats
+    {
+        private final String prefix;
+
+        private final String remark;
+
+        private final int sampleSize;
+
+        private final List<String> samples = new ArrayList<>();
+
+        private long keyCount;
+
+        private PrefixStats(String prefix, String remark, int sampleSize)
+        {
+            this.prefix = prefix;
+            this.remark = remark;
+            this.sampleSize = sampleSize;
+        }
+
+        /**
+         * 蓄水池抽样，每个键被抽中的概率相同
+         */
+        private void offer(String key)
+        {
+            keyCount++;
+            if (samples.size() < sampleSize)
+            {
+                samples.add(key);
+                return;
+            }
+            long index = ThreadLocalRandom.current().nextLong(keyCount);
+            if (index < sampleSize)
+            {
+                samples.set((int) index, key);
+            }
+        }
+    }
+}
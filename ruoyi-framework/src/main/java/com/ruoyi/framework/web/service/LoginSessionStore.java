@@ -0,0 +1,634 @@
+package com.ruoyi.framework.web.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisStringCommands.SetOption;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Component;
+import com.alibaba.fastjson2.JSONB;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.pagehelper.Page;
+import com.ruoyi.common.constant.CacheConstants;
+import com.ruoyi.common.core.domain.entity.SysRole;
+import com.ruoyi.common.core.domain.entity.SysUser;
+import com.ruoyi.common.core.domain.model.LoginUser;
+import com.ruoyi.common.utils.StringUtils;
+import com.ruoyi.common.utils.bean.BeanUtils;
+import com.ruoyi.common.utils.sign.Sha256Utils;
+import com.ruoyi.framework.web.domain.LoginSession;
+
+/**
+ * 登录会话redis存储
+ *
+ * 会话以JSONB二进制格式保存，权限集合按内容摘要在redis中共享存储一份，
+ * 相同角色组合的会话引用同一份权限集合；共享集合的有效期只延长不缩短，保证不短于引用它的任一会话。
+ *
+ * @author ruoyi
+ */
+@Component
+public class LoginSessionStore
+{
+    private static final Logger log = LoggerFactory.getLogger(LoginSessionStore.class);
+
+    private static final RedisSerializer<String> KEY_SERIALIZER = RedisSerializer.string();
+
+    /**
+     * JSON文本格式会话的首字节（升级前写入的会话）
+     */
+    private static final byte JSON_OBJECT_START = '{';
+
+    /**
+     * 会话存在时才延长有效期并写入续期记录，避免会话已删除时留下孤立的续期记录
+     */
+    private static final byte[] EXPIRE_SCRIPT = ("if redis.call('pexpire', KEYS[1], ARGV[1]) == 1 then\n" +
+            "    redis.call('set', KEYS[2], ARGV[2], 'PX', ARGV[1])\n" +
+            "    return 1\n" +
+            "end\n" +
+            "return 0").getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * 写入共享权限集合：不存在时写入，已存在时只延长有效期（其他会话可能需要更长的有效期）
+     * KEYS 为权限集合键，ARGV[1] 为有效期，ARGV[i + 1] 为 KEYS[i] 的内容
+     */
+    private static final byte[] PERMISSIONS_SCRIPT = ("local timeout = tonumber(ARGV[1])\n" +
+            "for i, key in ipairs(KEYS) do\n" +
+            "    local ttl = redis.call('pttl', key)\n" +
+            "    if ttl == -2 then\n" +
+            "        redis.call('set', key, ARGV[i + 1], 'PX', timeout)\n" +
+            "    elseif ttl == -1 or ttl < timeout then\n" +
+            "        redis.call('pexpire', key, timeout)\n" +
+            "    end\n" +
+            "end\n" +
+            "return 0").getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * 只延长不缩短有效期（键不存在时跳过），用于多个会话共享的键
+     * KEYS 为需要延长的键，ARGV[1] 为有效期
+     */
+    private static final byte[] EXTEND_SCRIPT = ("local timeout = tonumber(ARGV[1])\n" +
+            "for _, key in ipairs(KEYS) do\n" +
+            "    local ttl = redis.call('pttl', key)\n" +
+            "    if ttl == -1 or (ttl >= 0 and ttl < timeout) then\n" +
+            "        redis.call('pexpire', key, timeout)\n" +
+            "    end\n" +
+            "end\n" +
+            "return 0").getBytes(StandardCharsets.UTF_8);
+
+    @Autowired
+    private RedisTemplate<Object, Object> redisTemplate;
+
+    @Autowired
+    private SysPermissionService permissionService;
+
+    /**
+     * 权限集合本地缓存（摘要 -> 不可变集合），按内容寻址，缓存内容不会过时
+     */
+    private final Cache<String, Set<String>> permissionsCache = Caffeine.newBuilder().maximumSize(1000)
+            .expireAfterAccess(1, TimeUnit.HOURS).build();
+
+    /**
+     * 读取会话
+     *
+     * @param token 令牌uuid
+     * @return 用户信息，不存在返回null
+     */
+    public LoginUser get(String token)
+    {
+        return getAll(Collections.singletonList(token)).get(0);
+    }
+
+    /**
+     * 会话是否存在
+     *
+     * @param token 令牌uuid
+     * @return 结果
+     */
+    public boolean exists(String token)
+    {
+        return Boolean.TRUE.equals(redisTemplate.hasKey(getTokenKey(token)));
+    }
+
+    /**
+     * 批量读取会话（单次MGET）
+     *
+     * @param tokens 令牌uuid列表
+     * @return 与令牌顺序一致的用户信息，不存在的为null
+     */
+    public List<LoginUser> getAll(List<String> tokens)
+    {
+        final byte[][] rawKeys = new byte[tokens.size() * 2][];
+        for (int i = 0; i < tokens.size(); i++)
+        {
+            rawKeys[i * 2] = KEY_SERIALIZER.serialize(getTokenKey(tokens.get(i)));
+            rawKeys[i * 2 + 1] = KEY_SERIALIZER.serialize(getTokenExpireKey(tokens.get(i)));
+        }
+        List<byte[]> values = rawKeys.length == 0 ? null
+                : redisTemplate.execute((RedisCallback<List<byte[]>>) connection -> connection.stringCommands().mGet(rawKeys));
+        List<LoginUser> result = new ArrayList<>(tokens.size());
+        for (int i = 0; i < tokens.size(); i++)
+        {
+            result.add(values == null ? null : decode(values.get(i * 2), values.get(i * 2 + 1)));
+        }
+        return result;
+    }
+
+    /**
+     * 分页查询在线会话，按过期时间倒序
+     *
+     * @param ipaddr 登录地址
+     * @param userName 用户名称
+     * @param pageNum 页码
+     * @param pageSize 每页条数
+     * @return 当前页会话（含总数）
+     */
+    public Page<LoginUser> selectOnlinePage(String ipaddr, String userName, int pageNum, int pageSize)
+    {
+        final String indexKey;
+        if (StringUtils.isNotEmpty(userName))
+        {
+            indexKey = CacheConstants.LOGIN_INDEX_USER_KEY + userName;
+        }
+        else if (StringUtils.isNotEmpty(ipaddr))
+        {
+            indexKey = CacheConstants.LOGIN_INDEX_IP_KEY + ipaddr;
+        }
+        else
+        {
+            indexKey = CacheConstants.LOGIN_INDEX_EXPIRE_KEY;
+        }
+        // 同时按用户与地址过滤时，取该用户的全部会话（数量很少）再按地址过滤
+        final boolean filterIp = StringUtils.isNotEmpty(userName) && StringUtils.isNotEmpty(ipaddr);
+        final long start = filterIp ? 0 : (long) Math.max(pageNum - 1, 0) * pageSize;
+        final long end = filterIp ? -1 : start + pageSize - 1;
+        final byte[] rawIndexKey = KEY_SERIALIZER.serialize(indexKey);
+        final double now = System.currentTimeMillis();
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            // 清理已过期的索引
+            connection.zSetCommands().zRemRangeByScore(rawIndexKey, Double.NEGATIVE_INFINITY, now);
+            connection.zSetCommands().zCard(rawIndexKey);
+            connection.zSetCommands().zRevRange(rawIndexKey, start, end);
+            return null;
+        }, KEY_SERIALIZER);
+        long total = ((Number) results.get(1)).longValue();
+        @SuppressWarnings("unchecked")
+        List<String> tokens = new ArrayList<>((Collection<String>) results.get(2));
+        List<LoginUser> users = getAll(tokens);
+
+        List<String> staleTokens = new ArrayList<>();
+        List<LoginUser> rows = new ArrayList<>(users.size());
+        for (int i = 0; i < tokens.size(); i++)
+        {
+            LoginUser user = users.get(i);
+            if (StringUtils.isNull(user))
+            {
+                staleTokens.add(tokens.get(i));
+            }
+            else if (!filterIp || StringUtils.equals(ipaddr, user.getIpaddr()))
+            {
+                rows.add(user);
+            }
+        }
+        removeIndex(indexKey, staleTokens);
+
+        Page<LoginUser> page = new Page<>(pageNum, pageSize);
+        if (filterIp)
+        {
+            page.setTotal(rows.size());
+            int from = (int) Math.min((long) Math.max(pageNum - 1, 0) * pageSize, rows.size());
+            page.addAll(rows.subList(from, Math.min(from + pageSize, rows.size())));
+        }
+        else
+        {
+            page.setTotal(total - staleTokens.size());
+            page.addAll(rows);
+        }
+        return page;
+    }
+
+    /**
+     * 保存会话
+     *
+     * @param loginUser 用户信息
+     * @param timeout 有效期（毫秒）
+     */
+    public void set(LoginUser loginUser, long timeout)
+    {
+        Map<String, Set<String>> permissionSets = new LinkedHashMap<>();
+        LoginSession session = toSession(loginUser, permissionSets);
+        final byte[] sessionKey = KEY_SERIALIZER.serialize(getTokenKey(loginUser.getToken()));
+        final byte[] sessionValue = JSONB.toBytes(session);
+        // 脚本参数：权限集合键、有效期、各集合内容
+        final int keyCount = permissionSets.size();
+        final byte[][] keysAndArgs = new byte[keyCount * 2 + 1][];
+        keysAndArgs[keyCount] = String.valueOf(timeout).getBytes(StandardCharsets.UTF_8);
+        int i = 0;
+        for (Map.Entry<String, Set<String>> entry : permissionSets.entrySet())
+        {
+            keysAndArgs[i] = KEY_SERIALIZER.serialize(entry.getKey());
+            keysAndArgs[keyCount + 1 + i] = JSONB.toBytes(entry.getValue().toArray(new String[0]));
+            i++;
+        }
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            // 先写权限集合再写会话，其他节点读到会话时引用的权限集合已经存在
+            if (keyCount > 0)
+            {
+                connection.scriptingCommands().eval(PERMISSIONS_SCRIPT, ReturnType.INTEGER, keyCount, keysAndArgs);
+            }
+            connection.stringCommands().set(sessionKey, sessionValue, Expiration.milliseconds(timeout), SetOption.upsert());
+            addIndex(connection, loginUser, loginUser.getExpireTime(), timeout);
+            return null;
+        });
+    }
+
+    /**
+     * 延长会话有效期，并记录新的过期时间（单次管道调用）
+     *
+     * @param loginUser 用户信息
+     * @param timeout 有效期（毫秒）
+     * @param expireTime 新的过期时间
+     * @return true=会话存在且已续期；false=会话不存在
+     */
+    public boolean expire(LoginUser loginUser, long timeout, long expireTime)
+    {
+        final byte[] sessionKey = KEY_SERIALIZER.serialize(getTokenKey(loginUser.getToken()));
+        final byte[] expireKey = KEY_SERIALIZER.serialize(getTokenExpireKey(loginUser.getToken()));
+        final byte[] expireValue = valueSerializer().serialize(expireTime);
+        Map<String, Set<String>> permissionSets = new LinkedHashMap<>();
+        addPermissionSet(loginUser.getPermissions(), permissionSets);
+        if (StringUtils.isNotNull(loginUser.getUser()) && StringUtils.isNotEmpty(loginUser.getUser().getRoles()))
+        {
+            for (SysRole role : loginUser.getUser().getRoles())
+            {
+                addPermissionSet(role.getPermissions(), permissionSets);
+            }
+        }
+        final byte[] timeoutBytes = String.valueOf(timeout).getBytes(StandardCharsets.UTF_8);
+        final byte[][] permissionsKeysAndArgs = new byte[permissionSets.size() + 1][];
+        int i = 0;
+        for (String permissionsKey : permissionSets.keySet())
+        {
+            permissionsKeysAndArgs[i++] = KEY_SERIALIZER.serialize(permissionsKey);
+        }
+        permissionsKeysAndArgs[i] = timeoutBytes;
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            connection.scriptingCommands().eval(EXPIRE_SCRIPT, ReturnType.BOOLEAN, 2, sessionKey, expireKey, timeoutBytes, expireValue);
+            // 共享的权限集合只延长有效期，避免缩短其他会话仍在使用的集合
+            if (permissionsKeysAndArgs.length > 1)
+            {
+                connection.scriptingCommands().eval(EXTEND_SCRIPT, ReturnType.INTEGER, permissionsKeysAndArgs.length - 1, permissionsKeysAndArgs);
+            }
+            addIndex(connection, loginUser, expireTime, timeout);
+            return null;
+        });
+        return Boolean.TRUE.equals(results.get(0));
+    }
+
+    /**
+     * 删除会话及其在线索引，共享的权限集合由有效期自动清理
+     *
+     * @param token 令牌uuid
+     */
+    public void delete(String token)
+    {
+        final byte[] sessionKey = KEY_SERIALIZER.serialize(getTokenKey(token));
+        final byte[] member = KEY_SERIALIZER.serialize(token);
+        byte[] bytes = redisTemplate.execute((RedisCallback<byte[]>) connection -> connection.stringCommands().get(sessionKey));
+        final List<byte[]> indexKeys = getIndexKeys(bytes);
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            connection.keyCommands().del(sessionKey, KEY_SERIALIZER.serialize(getTokenExpireKey(token)));
+            connection.zSetCommands().zRem(KEY_SERIALIZER.serialize(CacheConstants.LOGIN_INDEX_EXPIRE_KEY), member);
+            for (byte[] indexKey : indexKeys)
+            {
+                connection.zSetCommands().zRem(indexKey, member);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * 写入在线会话索引（过期时间、用户名称、登录地址），分值为过期时间，同时清理各索引中已过期的会话
+     * 用户与地址索引由多个会话共享，有效期只延长不缩短，保证不早于其中任一会话过期
+     */
+    private void addIndex(RedisConnection connection, LoginUser loginUser, long expireTime, long timeout)
+    {
+        byte[] member = KEY_SERIALIZER.serialize(loginUser.getToken());
+        double now = System.currentTimeMillis();
+        byte[] timeoutBytes = String.valueOf(timeout).getBytes(StandardCharsets.UTF_8);
+        byte[] expireKey = KEY_SERIALIZER.serialize(CacheConstants.LOGIN_INDEX_EXPIRE_KEY);
+        connection.zSetCommands().zRemRangeByScore(expireKey, Double.NEGATIVE_INFINITY, now);
+        connection.zSetCommands().zAdd(expireKey, expireTime, member);
+        if (StringUtils.isNotNull(loginUser.getUser()))
+        {
+            byte[] userKey = getUserIndexKey(loginUser.getUsername());
+            connection.zSetCommands().zRemRangeByScore(userKey, Double.NEGATIVE_INFINITY, now);
+            connection.zSetCommands().zAdd(userKey, expireTime, member);
+            connection.scriptingCommands().eval(EXTEND_SCRIPT, ReturnType.INTEGER, 1, userKey, timeoutBytes);
+        }
+        if (StringUtils.isNotEmpty(loginUser.getIpaddr()))
+        {
+            byte[] ipKey = getIpIndexKey(loginUser.getIpaddr());
+            connection.zSetCommands().zRemRangeByScore(ipKey, Double.NEGATIVE_INFINITY, now);
+            connection.zSetCommands().zAdd(ipKey, expireTime, member);
+            connection.scriptingCommands().eval(EXTEND_SCRIPT, ReturnType.INTEGER, 1, ipKey, timeoutBytes);
+        }
+    }
+
+    /**
+     * 获取会话所在的用户与地址索引，只解析用户名称与登录地址，不加载权限
+     */
+    private List<byte[]> getIndexKeys(byte[] bytes)
+    {
+        List<byte[]> indexKeys = new ArrayList<>(2);
+        if (bytes == null || bytes.length == 0)
+        {
+            return indexKeys;
+        }
+        SysUser user;
+        String ipaddr;
+        if (bytes[0] == JSON_OBJECT_START)
+        {
+            LoginUser loginUser = (LoginUser) valueSerializer().deserialize(bytes);
+            user = StringUtils.isNotNull(loginUser) ? loginUser.getUser() : null;
+            ipaddr = StringUtils.isNotNull(loginUser) ? loginUser.getIpaddr() : null;
+        }
+        else
+        {
+            LoginSession session = JSONB.parseObject(bytes, LoginSession.class);
+            user = session.getUser();
+            ipaddr = session.getIpaddr();
+        }
+        if (StringUtils.isNotNull(user))
+        {
+            indexKeys.add(getUserIndexKey(user.getUserName()));
+        }
+        if (StringUtils.isNotEmpty(ipaddr))
+        {
+            indexKeys.add(getIpIndexKey(ipaddr));
+        }
+        return indexKeys;
+    }
+
+    private byte[] getUserIndexKey(String userName)
+    {
+        return KEY_SERIALIZER.serialize(CacheConstants.LOGIN_INDEX_USER_KEY + userName);
+    }
+
+    private byte[] getIpIndexKey(String ipaddr)
+    {
+        return KEY_SERIALIZER.serialize(CacheConstants.LOGIN_INDEX_IP_KEY + ipaddr);
+    }
+
+    /**
+     * 移除已失效会话的索引
+     */
+    private void removeIndex(String indexKey, List<String> tokens)
+    {
+        if (tokens.isEmpty())
+        {
+            return;
+        }
+        final byte[][] members = new byte[tokens.size()][];
+        for (int i = 0; i < members.length; i++)
+        {
+            members[i] = KEY_SERIALIZER.serialize(tokens.get(i));
+        }
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            connection.zSetCommands().zRem(KEY_SERIALIZER.serialize(indexKey), members);
+            connection.zSetCommands().zRem(KEY_SERIALIZER.serialize(CacheConstants.LOGIN_INDEX_EXPIRE_KEY), members);
+            return null;
+        });
+    }
+
+    /**
+     * 解析会话，并合并续期记录的过期时间
+     */
+    private LoginUser decode(byte[] bytes, byte[] expireBytes)
+    {
+        if (bytes == null || bytes.length == 0)
+        {
+            return null;
+        }
+        LoginUser loginUser = decode(bytes);
+        Object extendedExpireTime = valueSerializer().deserialize(expireBytes);
+        if (StringUtils.isNotNull(loginUser) && extendedExpireTime instanceof Number)
+        {
+            loginUser.setExpireTime(Math.max(loginUser.getExpireTime(), ((Number) extendedExpireTime).longValue()));
+        }
+        return loginUser;
+    }
+
+    /**
+     * 解析会话，兼容升级前的JSON文本格式
+     */
+    private LoginUser decode(byte[] bytes)
+    {
+        if (bytes[0] == JSON_OBJECT_START)
+        {
+            return (LoginUser) valueSerializer().deserialize(bytes);
+        }
+        LoginSession session = JSONB.parseObject(bytes, LoginSession.class);
+        LoginUser loginUser = new LoginUser();
+        loginUser.setUserId(session.getUserId());
+        loginUser.setDeptId(session.getDeptId());
+        loginUser.setToken(session.getToken());
+        loginUser.setLoginTime(session.getLoginTime());
+        loginUser.setExpireTime(session.getExpireTime());
+        loginUser.setIpaddr(session.getIpaddr());
+        loginUser.setLoginLocation(session.getLoginLocation());
+        loginUser.setBrowser(session.getBrowser());
+        loginUser.setOs(session.getOs());
+        loginUser.setUser(session.getUser());
+        loginUser.setPermissionVersion(session.getPermissionVersion());
+
+        Map<String, String> roleKeys = StringUtils.isNull(session.getRolePermissionsKeys()) ? Collections.emptyMap() : session.getRolePermissionsKeys();
+        Set<String> keys = new LinkedHashSet<>(roleKeys.values());
+        if (StringUtils.isNotEmpty(session.getPermissionsKey()))
+        {
+            keys.add(session.getPermissionsKey());
+        }
+        Map<String, Set<String>> permissionSets = getPermissionSets(keys);
+        if (permissionSets.size() < keys.size())
+        {
+            // 共享权限集合已失效，重新加载并保存
+            log.warn("会话'{}'的权限集合已失效，重新加载", session.getToken());
+            loginUser.setPermissions(permissionService.getMenuPermission(loginUser.getUser()));
+            set(loginUser, Math.max(1, loginUser.getExpireTime() - System.currentTimeMillis()));
+            return loginUser;
+        }
+        loginUser.setPermissions(permissionSets.get(session.getPermissionsKey()));
+        if (StringUtils.isNotNull(loginUser.getUser()) && StringUtils.isNotEmpty(loginUser.getUser().getRoles()))
+        {
+            for (SysRole role : loginUser.getUser().getRoles())
+            {
+                String roleKey = roleKeys.get(String.valueOf(role.getRoleId()));
+                if (StringUtils.isNotEmpty(roleKey))
+                {
+                    role.setPermissions(permissionSets.get(roleKey));
+                }
+            }
+        }
+        return loginUser;
+    }
+
+    /**
+     * 计算权限集合摘要
+     *
+     * @param permissions 权限集合
+     * @return 权限集合摘要
+     */
+    public String getPermissionsKey(Set<String> permissions)
+    {
+        return addPermissionSet(permissions, new HashMap<>(1));
+    }
+
+    /**
+     * 按摘要获取共享的权限集合
+     *
+     * @param key 权限集合摘要
+     * @return 权限集合，不存在返回null
+     */
+    public Set<String> getPermissionSet(String key)
+    {
+        if (StringUtils.isEmpty(key))
+        {
+            return null;
+        }
+        return getPermissionSets(Collections.singleton(key)).get(key);
+    }
+
+    /**
+     * 按摘要获取权限集合，本地未命中的一次MGET批量读取
+     */
+    private Map<String, Set<String>> getPermissionSets(Set<String> keys)
+    {
+        Map<String, Set<String>> result = new HashMap<>(keys.size());
+        List<String> missingKeys = new ArrayList<>();
+        for (String key : keys)
+        {
+            Set<String> permissions = permissionsCache.getIfPresent(key);
+            if (StringUtils.isNotNull(permissions))
+            {
+                result.put(key, permissions);
+            }
+            else
+            {
+                missingKeys.add(key);
+            }
+        }
+        if (!missingKeys.isEmpty())
+        {
+            final byte[][] rawKeys = new byte[missingKeys.size()][];
+            for (int i = 0; i < rawKeys.length; i++)
+            {
+                rawKeys[i] = KEY_SERIALIZER.serialize(missingKeys.get(i));
+            }
+            List<byte[]> values = redisTemplate.execute((RedisCallback<List<byte[]>>) connection -> connection.stringCommands().mGet(rawKeys));
+            for (int i = 0; values != null && i < values.size(); i++)
+            {
+                if (values.get(i) != null)
+                {
+                    Set<String> permissions = Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(JSONB.parseObject(values.get(i), String[].class))));
+                    permissionsCache.put(missingKeys.get(i), permissions);
+                    result.put(missingKeys.get(i), permissions);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 转换为存储格式，并收集需要共享存储的权限集合
+     */
+    private LoginSession toSession(LoginUser loginUser, Map<String, Set<String>> permissionSets)
+    {
+        LoginSession session = new LoginSession();
+        session.setUserId(loginUser.getUserId());
+        session.setDeptId(loginUser.getDeptId());
+        session.setToken(loginUser.getToken());
+        session.setLoginTime(loginUser.getLoginTime());
+        session.setExpireTime(loginUser.getExpireTime());
+        session.setIpaddr(loginUser.getIpaddr());
+        session.setLoginLocation(loginUser.getLoginLocation());
+        session.setBrowser(loginUser.getBrowser());
+        session.setOs(loginUser.getOs());
+        session.setPermissionsKey(addPermissionSet(loginUser.getPermissions(), permissionSets));
+        session.setPermissionVersion(loginUser.getPermissionVersion());
+        SysUser user = loginUser.getUser();
+        if (StringUtils.isNotNull(user))
+        {
+            SysUser sessionUser = new SysUser();
+            BeanUtils.copyProperties(user, sessionUser, "roles");
+            if (StringUtils.isNotNull(user.getRoles()))
+            {
+                Map<String, String> roleKeys = new HashMap<>();
+                List<SysRole> roles = new ArrayList<>(user.getRoles().size());
+                for (SysRole role : user.getRoles())
+                {
+                    SysRole sessionRole = new SysRole();
+                    BeanUtils.copyProperties(role, sessionRole, "permissions");
+                    roles.add(sessionRole);
+                    String roleKey = addPermissionSet(role.getPermissions(), permissionSets);
+                    if (StringUtils.isNotEmpty(roleKey))
+                    {
+                        roleKeys.put(String.valueOf(role.getRoleId()), roleKey);
+                    }
+                }
+                sessionUser.setRoles(roles);
+                session.setRolePermissionsKeys(roleKeys);
+            }
+            session.setUser(sessionUser);
+        }
+        return session;
+    }
+
+    /**
+     * 计算权限集合摘要（排序后计算，相同内容得到相同摘要）
+     */
+    private String addPermissionSet(Set<String> permissions, Map<String, Set<String>> permissionSets)
+    {
+        if (StringUtils.isNull(permissions))
+        {
+            return null;
+        }
+        List<String> sorted = new ArrayList<>(permissions);
+        Collections.sort(sorted);
+        String key = CacheConstants.LOGIN_PERMISSIONS_KEY + Sha256Utils.hash(String.join("\n", sorted));
+        permissionSets.put(key, new LinkedHashSet<>(sorted));
+        return key;
+    }
+
+    @SuppressWarnings("unchecked")
+    private RedisSerializer<Object> valueSerializer()
+    {
+        return (RedisSerializer<Object>) redisTemplate.getValueSerializer();
+    }
+
+    private String getTokenKey(String uuid)
+    {
+        return CacheConstants.LOGIN_TOKEN_KEY + uuid;
+    }
+
+    private String getTokenExpireKey(String uuid)
+    {
+        return CacheConstants.LOGIN_TOKEN_EXPIRE_KEY + uuid;
+    }
+}
@@ -0,0 +1,229 @@
+package com.ruoyi.framework.web.service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import com.alibaba.fastjson2.JSONB;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.ruoyi.common.constant.CacheConstants;
+import com.ruoyi.common.core.domain.entity.SysUser;
+import com.ruoyi.common.core.domain.model.LoginUser;
+import com.ruoyi.common.core.redis.RedisCache;
+import com.ruoyi.common.utils.StringUtils;
+
+/**
+ * 登录用户本地缓存（redis前的近端缓存）
+ *
+ * 以令牌uuid为键缓存LoginUser，过期时间取本地缓存时长与会话剩余有效期的较小值；
+ * 会话变更时通过redis广播通知其他节点失效本地缓存。
+ * 缓存保存写入时的副本，每次读取返回新的副本，请求中修改用户信息不会影响其他请求，修改后需重新写入才会生效。
+ * 权限集合与权限位图只读，副本之间共享。
+ *
+ * @author ruoyi
+ */
+@Component
+public class LoginUserCache implements MessageListener
+{
+    private static final Logger log = LoggerFactory.getLogger(LoginUserCache.class);
+
+    /**
+     * 广播消息中节点标识与令牌的分隔符
+     */
+    private static final String SEPARATOR = ":";
+
+    // 本地缓存开关
+    @Value("${token.localCache.enabled:true}")
+    private boolean enabled;
+
+    // 本地缓存最大条数
+    @Value("${token.localCache.maximumSize:10000}")
+    private long maximumSize;
+
+    // 本地缓存有效期（秒）
+    @Value("${token.localCache.expireSeconds:60}")
+    private long expireSeconds;
+
+    @Autowired
+    private RedisCache redisCache;
+
+    @Autowired
+    private RedisMessageListenerContainer listenerContainer;
+
+    @Autowired
+    private PermissionIndex permissionIndex;
+
+    private Cache<String, LoginUser> cache;
+
+    /**
+     * 失效次数（含本节点与其他节点通知）
+     */
+    private final AtomicLong invalidationCount = new AtomicLong();
+
+    @PostConstruct
+    public void init()
+    {
+        final long expireNanos = TimeUnit.SECONDS.toNanos(expireSeconds);
+        cache = Caffeine.newBuilder().maximumSize(maximumSize).recordStats().expireAfter(new Expiry<String, LoginUser>()
+        {
+            @Override
+            public long expireAfterCreate(String key, LoginUser value, long currentTime)
+            {
+                return expireNanos(value, expireNanos);
+            }
+
+            @Override
+            public long expireAfterUpdate(String key, LoginUser value, long currentTime, long currentDuration)
+            {
+                return expireNanos(value, expireNanos);
+            }
+
+            @Override
+            public long expireAfterRead(String key, LoginUser value, long currentTime, long currentDuration)
+            {
+                return currentDuration;
+            }
+        }).build();
+        listenerContainer.addMessageListener(this, new ChannelTopic(CacheConstants.LOGIN_TOKEN_CHANNEL));
+    }
+
+    /**
+     * 获取本地缓存的用户信息
+     *
+     * @param token 令牌uuid
+     * @return 用户信息副本，未命中返回null
+     */
+    public LoginUser get(String token)
+    {
+        LoginUser loginUser = enabled ? cache.getIfPresent(token) : null;
+        return StringUtils.isNull(loginUser) ? null : copy(loginUser);
+    }
+
+    /**
+     * 写入本地缓存
+     *
+     * @param token 令牌uuid
+     * @param loginUser 用户信息
+     */
+    public void put(String token, LoginUser loginUser)
+    {
+        if (enabled && StringUtils.isNotNull(loginUser))
+        {
+            LoginUser snapshot = copy(loginUser);
+            // 权限位图在副本间共享，写入时生成一次
+            permissionIndex.getPermissionBits(snapshot);
+            cache.put(token, snapshot);
+        }
+    }
+
+    /**
+     * 会话已变更，失效本地缓存并通知其他节点
+     *
+     * @param token 令牌uuid
+     */
+    public void publishInvalidate(String token)
+    {
+        try
+        {
+            redisCache.publish(CacheConstants.LOGIN_TOKEN_CHANNEL, RedisCache.NODE_ID + SEPARATOR + token);
+        }
+        catch (Exception e)
+        {
+            log.error("发布用户缓存失效通知异常'{}'", e.getMessage());
+        }
+    }
+
+    /**
+     * 失效本地缓存
+     *
+     * @param token 令牌uuid
+     */
+    public void invalidate(String token)
+    {
+        if (cache.asMap().remove(token) != null)
+        {
+            invalidationCount.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern)
+    {
+        String body = redisCache.getMessageBody(message);
+        String nodeId = StringUtils.substringBefore(body, SEPARATOR);
+        if (StringUtils.isNotEmpty(nodeId) && !RedisCache.NODE_ID.equals(nodeId))
+        {
+            invalidate(StringUtils.substringAfter(body, SEPARATOR));
+        }
+    }
+
+    /**
+     * 获取本地缓存统计信息
+     *
+     * @return 命中、未命中、失效等计数
+     */
+    public Map<String, Object> getStatistics()
+    {
+        CacheStats stats = cache.stats();
+        Map<String, Object> result = new HashMap<>(6);
+        result.put("enabled", enabled);
+        result.put("size", cache.estimatedSize());
+        result.put("hitCount", stats.hitCount());
+        result.put("missCount", stats.missCount());
+        result.put("evictionCount", stats.evictionCount());
+        result.put("invalidationCount", invalidationCount.get());
+        return result;
+    }
+
+    /**
+     * 复制用户信息（用户连同部门、角色深复制，权限集合与权限位图共享）
+     */
+    private static LoginUser copy(LoginUser loginUser)
+    {
+        LoginUser copy = new LoginUser();
+        copy.setUserId(loginUser.getUserId());
+        copy.setDeptId(loginUser.getDeptId());
+        copy.setToken(loginUser.getToken());
+        copy.setLoginTime(loginUser.getLoginTime());
+        copy.setExpireTime(loginUser.getExpireTime());
+        copy.setIpaddr(loginUser.getIpaddr());
+        copy.setLoginLocation(loginUser.getLoginLocation());
+        copy.setBrowser(loginUser.getBrowser());
+        copy.setOs(loginUser.getOs());
+        copy.setPermissions(loginUser.getPermissions());
+        copy.setPermissionBits(loginUser.getPermissionBits());
+        copy.setPermissionVersion(loginUser.getPermissionVersion());
+        if (StringUtils.isNotNull(loginUser.getUser()))
+        {
+            // 与会话存储相同的JSONB格式往返复制，含部门与角色
+            copy.setUser(JSONB.parseObject(JSONB.toBytes(loginUser.getUser()), SysUser.class));
+        }
+        return copy;
+    }
+
+    /**
+     * 本地缓存有效期不超过会话剩余有效期
+     */
+    private static long expireNanos(LoginUser loginUser, long expireNanos)
+    {
+        if (StringUtils.isNull(loginUser.getExpireTime()))
+        {
+            return expireNanos;
+        }
+        long remain = TimeUnit.MILLISECONDS.toNanos(loginUser.getExpireTime() - System.currentTimeMillis());
+        return Math.max(0, Math.min(expireNanos, remain));
+    }
+}
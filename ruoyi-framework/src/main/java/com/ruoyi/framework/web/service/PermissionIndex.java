@@ -0,0 +1,162 @@
+package com.ruoyi.framework.web.service;
+
+import java.util.BitSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import com.ruoyi.common.constant.Constants;
+import com.ruoyi.common.core.domain.model.LoginUser;
+import com.ruoyi.common.utils.StringUtils;
+import com.ruoyi.system.service.ISysMenuService;
+
+/**
+ * 权限字符索引
+ *
+ * 权限字符串统一映射为整数编号，用户权限列表转换为位图，注解中的权限表达式首次使用时解析并缓存，
+ * 鉴权时只需按编号测试位图。编号只增不减，新增菜单权限在首次出现时分配。
+ *
+ * @author ruoyi
+ */
+@Component
+public class PermissionIndex
+{
+    private static final Logger log = LoggerFactory.getLogger(PermissionIndex.class);
+
+    /**
+     * 所有权限（*:*:*）固定编号
+     */
+    public static final int ALL_PERMISSION_ID = 0;
+
+    @Autowired
+    private ISysMenuService menuService;
+
+    /**
+     * 权限字符串 -> 编号
+     */
+    private final Map<String, Integer> permissionIds = new ConcurrentHashMap<>();
+
+    /**
+     * 单个权限表达式 -> 编号
+     */
+    private final Map<String, Integer> permissionExpressions = new ConcurrentHashMap<>();
+
+    /**
+     * 多个权限表达式 -> 编号列表
+     */
+    private final Map<String, int[]> anyPermissionExpressions = new ConcurrentHashMap<>();
+
+    private final AtomicInteger sequence = new AtomicInteger(ALL_PERMISSION_ID);
+
+    /**
+     * 项目启动时，预先为菜单权限分配编号
+     */
+    @PostConstruct
+    public void init()
+    {
+        permissionIds.put(Constants.ALL_PERMISSION, ALL_PERMISSION_ID);
+        try
+        {
+            for (String permission : menuService.selectMenuPerms())
+            {
+                getId(permission);
+            }
+        }
+        catch (Exception e)
+        {
+            log.error("加载菜单权限编号异常'{}'", e.getMessage());
+        }
+    }
+
+    /**
+     * 获取权限编号，不存在时分配新编号
+     *
+     * @param permission 权限字符串
+     * @return 权限编号
+     */
+    public int getId(String permission)
+    {
+        return permissionIds.computeIfAbsent(StringUtils.trim(permission), key -> sequence.incrementAndGet());
+    }
+
+    /**
+     * 解析单个权限表达式
+     *
+     * @param permission 权限字符串
+     * @return 权限编号
+     */
+    public int resolve(String permission)
+    {
+        // 先查询再计算，命中时不创建捕获this的方法引用
+        Integer id = permissionExpressions.get(permission);
+        return StringUtils.isNotNull(id) ? id : permissionExpressions.computeIfAbsent(permission, this::getId);
+    }
+
+    /**
+     * 解析以 PERMISSION_DELIMITER 为分隔符的权限表达式
+     *
+     * @param permissions 权限列表
+     * @return 权限编号列表
+     */
+    public int[] resolveAny(String permissions)
+    {
+        int[] resolved = anyPermissionExpressions.get(permissions);
+        if (StringUtils.isNotNull(resolved))
+        {
+            return resolved;
+        }
+        return anyPermissionExpressions.computeIfAbsent(permissions, key -> {
+            String[] parts = key.split(Constants.PERMISSION_DELIMITER);
+            int[] ids = new int[parts.length];
+            for (int i = 0; i < parts.length; i++)
+            {
+                ids[i] = getId(parts[i]);
+            }
+            return ids;
+        });
+    }
+
+    /**
+     * 获取用户权限位图，首次使用时由权限列表生成并保存在用户信息上
+     *
+     * @param loginUser 用户信息
+     * @return 权限位图
+     */
+    public BitSet getPermissionBits(LoginUser loginUser)
+    {
+        BitSet bits = loginUser.getPermissionBits();
+        if (StringUtils.isNull(bits))
+        {
+            bits = toBits(loginUser.getPermissions());
+            loginUser.setPermissionBits(bits);
+        }
+        return bits;
+    }
+
+    /**
+     * 权限列表转换为位图
+     *
+     * @param permissions 权限列表
+     * @return 权限位图
+     */
+    public BitSet toBits(Set<String> permissions)
+    {
+        BitSet bits = new BitSet(permissionIds.size());
+        if (StringUtils.isNotNull(permissions))
+        {
+            for (String permission : permissions)
+            {
+                if (StringUtils.isNotEmpty(permission))
+                {
+                    bits.set(getId(permission));
+                }
+            }
+        }
+        return bits;
+    }
+}
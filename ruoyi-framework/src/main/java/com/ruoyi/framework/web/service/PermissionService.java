@@ -1,6 +1,7 @@
 package com.ruoyi.framework.web.service;
 
-import java.util.Set;
+import java.util.BitSet;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.util.CollectionUtils;
 import com.ruoyi.common.constant.Constants;
@@ -18,6 +19,9 @@ import com.ruoyi.framework.security.context.PermissionContextHolder;
 @Service("ss")
 public class PermissionService
 {
+    @Autowired
+    private PermissionIndex permissionIndex;
+
     /**
      * 验证用户是否具备某权限
      * 
@@ -36,7 +40,7 @@ public class PermissionService
             return false;
         }
         PermissionContextHolder.setContext(permission);
-        return hasPermissions(loginUser.getPermissions(), permission);
+        return hasPermissions(permissionIndex.getPermissionBits(loginUser), permissionIndex.resolve(permission));
     }
 
     /**
@@ -68,10 +72,10 @@ public class PermissionService
             return false;
         }
         PermissionContextHolder.setContext(permissions);
-        Set<String> authorities = loginUser.getPermissions();
-        for (String permission : permissions.split(Constants.PERMISSION_DELIMITER))
+        BitSet authorities = permissionIndex.getPermissionBits(loginUser);
+        for (int permissionId : permissionIndex.resolveAny(permissions))
         {
-            if (permission != null && hasPermissions(authorities, permission))
+            if (hasPermissions(authorities, permissionId))
             {
                 return true;
             }
@@ -148,12 +152,12 @@ public class PermissionService
     /**
      * 判断是否包含权限
      * 
-     * @param permissions 权限列表
-     * @param permission 权限字符串
+     * @param permissions 权限位图
+     * @param permissionId 权限编号
      * @return 用户是否具备某权限
      */
-    private boolean hasPermissions(Set<String> permissions, String permission)
+    private boolean hasPermissions(BitSet permissions, int permissionId)
     {
-        return permissions.contains(Constants.ALL_PERMISSION) || permissions.contains(StringUtils.trim(permission));
+        return permissions.get(PermissionIndex.ALL_PERMISSION_ID) || permissions.get(permissionId);
     }
 }
@@ -0,0 +1,227 @@
+package com.ruoyi.framework.web.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ruoyi.common.enums.LimitAlgorithm;
+
+/**
+ * 限流服务
+ *
+ * 每个节点从Redis按批租借配额放入本地，请求优先消耗本地配额，用完或租约过期后再访问Redis；
+ * 同一key同时只有一个线程访问Redis，其他线程等待其结果后再消耗本地配额。
+ * Redis返回无配额时，本地在建议的等待时间内直接拒绝。租约最迟在所属窗口结束时过期，集群总放行数不超过限流次数，
+ * 未用完的租借配额会随租约过期作废，因此实际放行数可能略低于限流次数。
+ *
+ * @author ruoyi
+ */
+@Component
+public class RateLimiterService
+{
+    // 单次最多租借的配额数
+    @Value("${rateLimiter.maxLease:20}")
+    private int maxLease;
+
+    // 本地租约有效期（毫秒）
+    @Value("${rateLimiter.leaseTtl:1000}")
+    private long leaseTtl;
+
+    // 最多跟踪的限流key数量
+    @Value("${rateLimiter.maxKeys:10000}")
+    private long maxKeys;
+
+    @Autowired
+    private RedisTemplate<Object, Object> redisTemplate;
+
+    @SuppressWarnings("rawtypes")
+    @Autowired
+    private RedisScript<List> limitScript;
+
+    private Cache<String, LimiterState> states;
+
+    @PostConstruct
+    public void init()
+    {
+        states = Caffeine.newBuilder().maximumSize(maxKeys).expireAfterAccess(10, TimeUnit.MINUTES).build();
+    }
+
+    /**
+     * 尝试获取一次访问许可
+     *
+     * @param key 限流key
+     * @param algorithm 限流算法
+     * @param count 限流次数
+     * @param time 时间窗口（秒）
+     * @return 是否放行
+     */
+    public boolean tryAcquire(String key, LimitAlgorithm algorithm, int count, int time)
+    {
+        LimiterState state = states.get(key, k -> new LimiterState(k, algorithm, count, time));
+        return state.tryAcquire();
+    }
+
+    /**
+     * 获取各限流key的运行统计（按拒绝次数倒序，最多100条）
+     */
+    public List<Map<String, Object>> getStatistics()
+    {
+        List<LimiterState> list = new ArrayList<>(states.asMap().values());
+        list.sort(Comparator.comparingLong((LimiterState s) -> s.rejectedCount).reversed());
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (LimiterState state : list.subList(0, Math.min(100, list.size())))
+        {
+            result.add(state.getStatistics());
+        }
+        return result;
+    }
+
+    /**
+     * 单个限流key的本地状态
+     */
+    private class LimiterState
+    {
+        private final String key;
+
+        private final String redisKey;
+
+        private final LimitAlgorithm algorithm;
+
+        private final int count;
+
+        private final int time;
+
+        private final int leaseSize;
+
+        /** 本地剩余配额 */
+        private int permits;
+
+        private long leaseExpireTime;
+
+        /** 正在进行的Redis租借，为null时没有 */
+        private CompletableFuture<Void> fetching;
+
+        /** 在此时间之前直接拒绝 */
+        private long blockedUntil;
+
+        private long permittedCount;
+
+        private long rejectedCount;
+
+        private long redisCount;
+
+        private LimiterState(String key, LimitAlgorithm algorithm, int count, int time)
+        {
+            this.key = key;
+            this.algorithm = algorithm;
+            this.count = count;
+            this.time = time;
+            // 不同算法的数据结构不同，使用不同的key
+            this.redisKey = algorithm == LimitAlgorithm.FIXED_WINDOW ? key : key + ":" + algorithm.name().toLowerCase();
+            this.leaseSize = Math.max(1, Math.min(maxLease, count / 10));
+        }
+
+        private boolean tryAcquire()
+        {
+            while (true)
+            {
+                CompletableFuture<Void> pending;
+                synchronized (this)
+                {
+                    long now = System.currentTimeMillis();
+                    if (now < blockedUntil)
+                    {
+                        rejectedCount++;
+                        return false;
+                    }
+                    if (permits > 0 && now < leaseExpireTime)
+                    {
+                        permits--;
+                        permittedCount++;
+                        return true;
+                    }
+                    pending = fetching;
+                    if (pending == null)
+                    {
+                        fetching = new CompletableFuture<>();
+                    }
+                }
+                if (pending == null)
+                {
+                    return fetch();
+                }
+                // 等待正在进行的租借完成后重新检查本地配额
+                pending.join();
+            }
+        }
+
+        /**
+         * 在锁外访问Redis租借配额，完成后唤醒等待的线程
+         */
+        private boolean fetch()
+        {
+            try
+            {
+                List<?> result = redisTemplate.execute(limitScript, Collections.singletonList(redisKey),
+                        algorithm.ordinal(), count, time, leaseSize);
+                long now = System.currentTimeMillis();
+                long granted = result == null || result.isEmpty() ? 0 : ((Number) result.get(0)).longValue();
+                synchronized (this)
+                {
+                    redisCount++;
+                    if (granted <= 0)
+                    {
+                        long retryAfter = result == null || result.size() < 2 ? 0 : ((Number) result.get(1)).longValue();
+                        blockedUntil = now + Math.min(Math.max(retryAfter, 0), time * 1000L);
+                        permits = 0;
+                        rejectedCount++;
+                        return false;
+                    }
+                    // 窗口重置后剩余配额不再有效，租约不超过当前窗口的剩余时间
+                    long windowRemaining = result.size() < 3 ? 0 : ((Number) result.get(2)).longValue();
+                    permits = (int) granted - 1;
+                    leaseExpireTime = now + (windowRemaining > 0 ? Math.min(leaseTtl, windowRemaining) : leaseTtl);
+                    permittedCount++;
+                    return true;
+                }
+            }
+            finally
+            {
+                CompletableFuture<Void> done;
+                synchronized (this)
+                {
+                    done = fetching;
+                    fetching = null;
+                }
+                done.complete(null);
+            }
+        }
+
+        private synchronized Map<String, Object> getStatistics()
+        {
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("key", key);
+            result.put("algorithm", algorithm.name());
+            result.put("count", count);
+            result.put("time", time);
+            result.put("leaseSize", leaseSize);
+            result.put("localPermits", System.currentTimeMillis() < leaseExpireTime ? permits : 0);
+            result.put("permittedCount", permittedCount);
+            result.put("rejectedCount", rejectedCount);
+            result.put("redisCount", redisCount);
+            return result;
+        }
+    }
+}
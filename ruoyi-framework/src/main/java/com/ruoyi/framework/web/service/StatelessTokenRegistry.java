@@ -0,0 +1,174 @@
+package com.ruoyi.framework.web.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Component;
+import com.ruoyi.common.constant.CacheConstants;
+
+/**
+ * 无状态令牌状态登记
+ *
+ * 无状态模式下令牌验签后不再访问redis，退出、强退等吊销操作以及会话变更记录在redis有序集合中，
+ * 各节点定时增量同步到内存，认证时只需查询本地集合。
+ *
+ * @author ruoyi
+ */
+@Component
+public class StatelessTokenRegistry
+{
+    private static final Logger log = LoggerFactory.getLogger(StatelessTokenRegistry.class);
+
+    private static final RedisSerializer<String> STRING_SERIALIZER = RedisSerializer.string();
+
+    /**
+     * 增量同步的重叠时间（毫秒），用于容忍节点间时钟偏差
+     */
+    private static final long SYNC_OVERLAP = 10 * 1000L;
+
+    // 无状态模式开关
+    @Value("${token.stateless.enabled:false}")
+    private boolean enabled;
+
+    // 无状态令牌有效期（分钟）
+    @Value("${token.stateless.expireTime:720}")
+    private int expireTime;
+
+    // 吊销列表同步间隔（秒）
+    @Value("${token.stateless.syncInterval:5}")
+    private int syncInterval;
+
+    @Autowired
+    private RedisTemplate<Object, Object> redisTemplate;
+
+    @Autowired
+    @Qualifier("scheduledExecutorService")
+    private ScheduledExecutorService scheduledExecutorService;
+
+    /**
+     * 已吊销的令牌（令牌uuid -> 吊销时间）
+     */
+    private final Map<String, Long> revokedTokens = new ConcurrentHashMap<>();
+
+    /**
+     * 会话已变更的令牌（令牌uuid -> 变更时间），令牌中的声明已过时，需读取会话
+     */
+    private final Map<String, Long> changedTokens = new ConcurrentHashMap<>();
+
+    private volatile long lastSyncTime = 0;
+
+    @PostConstruct
+    public void init()
+    {
+        if (enabled)
+        {
+            sync();
+            scheduledExecutorService.scheduleWithFixedDelay(this::sync, syncInterval, syncInterval, TimeUnit.SECONDS);
+        }
+    }
+
+    public boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    /**
+     * 获取无状态令牌有效期
+     *
+     * @return 有效期（毫秒）
+     */
+    public long getTimeout()
+    {
+        return TimeUnit.MINUTES.toMillis(expireTime);
+    }
+
+    /**
+     * 吊销令牌
+     *
+     * @param token 令牌uuid
+     */
+    public void revoke(String token)
+    {
+        record(CacheConstants.LOGIN_REVOKED_KEY, revokedTokens, token);
+    }
+
+    /**
+     * 标记令牌对应的会话已变更
+     *
+     * @param token 令牌uuid
+     */
+    public void markChanged(String token)
+    {
+        record(CacheConstants.LOGIN_CHANGED_KEY, changedTokens, token);
+    }
+
+    public boolean isRevoked(String token)
+    {
+        return revokedTokens.containsKey(token);
+    }
+
+    public boolean isChanged(String token)
+    {
+        return changedTokens.containsKey(token);
+    }
+
+    /**
+     * 从redis增量同步吊销与变更记录，并清理超过令牌有效期的记录
+     */
+    public void sync()
+    {
+        try
+        {
+            final long now = System.currentTimeMillis();
+            final double expired = now - getTimeout();
+            final double from = Math.max(lastSyncTime - SYNC_OVERLAP, expired);
+            final byte[] revokedKey = STRING_SERIALIZER.serialize(CacheConstants.LOGIN_REVOKED_KEY);
+            final byte[] changedKey = STRING_SERIALIZER.serialize(CacheConstants.LOGIN_CHANGED_KEY);
+            List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                connection.zSetCommands().zRemRangeByScore(revokedKey, Double.NEGATIVE_INFINITY, expired);
+                connection.zSetCommands().zRangeByScoreWithScores(revokedKey, from, Double.POSITIVE_INFINITY);
+                connection.zSetCommands().zRemRangeByScore(changedKey, Double.NEGATIVE_INFINITY, expired);
+                connection.zSetCommands().zRangeByScoreWithScores(changedKey, from, Double.POSITIVE_INFINITY);
+                return null;
+            }, STRING_SERIALIZER);
+            merge(revokedTokens, results.get(1), expired);
+            merge(changedTokens, results.get(3), expired);
+            lastSyncTime = now;
+        }
+        catch (Exception e)
+        {
+            log.error("同步令牌吊销列表异常'{}'", e.getMessage());
+        }
+    }
+
+    private void record(String key, Map<String, Long> tokens, String token)
+    {
+        long now = System.currentTimeMillis();
+        tokens.put(token, now);
+        redisTemplate.execute((RedisCallback<Object>) connection -> connection.zSetCommands()
+                .zAdd(STRING_SERIALIZER.serialize(key), now, STRING_SERIALIZER.serialize(token)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void merge(Map<String, Long> tokens, Object tuples, double expired)
+    {
+        for (TypedTuple<String> tuple : (Set<TypedTuple<String>>) tuples)
+        {
+            tokens.put(tuple.getValue(), tuple.getScore().longValue());
+        }
+        tokens.values().removeIf(time -> time < expired);
+    }
+}
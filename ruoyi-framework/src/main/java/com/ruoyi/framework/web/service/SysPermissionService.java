@@ -1,22 +1,30 @@
 package com.ruoyi.framework.web.service;
 
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Function;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.util.CollectionUtils;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.ruoyi.common.constant.Constants;
 import com.ruoyi.common.constant.UserConstants;
 import com.ruoyi.common.core.domain.entity.SysRole;
 import com.ruoyi.common.core.domain.entity.SysUser;
 import com.ruoyi.common.utils.StringUtils;
 import com.ruoyi.system.service.ISysMenuService;
+import com.ruoyi.system.service.ISysPermissionVersionService;
 import com.ruoyi.system.service.ISysRoleService;
 
 /**
  * 用户权限处理
  * 
+ * 角色权限、角色菜单权限按权限版本号缓存在本地，角色、菜单或用户角色变更时版本号递增，缓存整体失效。
+ * 缓存项记录开始加载时的版本号，版本号不一致的缓存项视为失效，避免失效期间仍在加载的旧数据写回缓存。
+ * 
  * @author ruoyi
  */
 @Component
@@ -28,6 +36,39 @@ public class SysPermissionService
     @Autowired
     private ISysMenuService menuService;
 
+    @Autowired
+    private ISysPermissionVersionService permissionVersionService;
+
+    /**
+     * 用户角色权限缓存（用户ID -> 角色权限字符）
+     */
+    private final Cache<Long, VersionedPermissions> userRoleCache = Caffeine.newBuilder().maximumSize(10000).build();
+
+    /**
+     * 角色菜单权限缓存（角色ID -> 菜单权限）
+     */
+    private final Cache<Long, VersionedPermissions> roleMenuCache = Caffeine.newBuilder().maximumSize(1000).build();
+
+    /**
+     * 用户菜单权限缓存（用户ID -> 菜单权限），用于未加载角色的用户
+     */
+    private final Cache<Long, VersionedPermissions> userMenuCache = Caffeine.newBuilder().maximumSize(10000).build();
+
+    /**
+     * 缓存对应的权限版本号
+     */
+    private volatile long cacheVersion = -1;
+
+    /**
+     * 获取当前权限版本号
+     * 
+     * @return 版本号
+     */
+    public long getVersion()
+    {
+        return permissionVersionService.getVersion();
+    }
+
     /**
      * 获取角色数据权限
      * 
@@ -44,7 +85,8 @@ public class SysPermissionService
         }
         else
         {
-            roles.addAll(roleService.selectRolePermissionByUserId(user.getUserId()));
+            long version = checkVersion();
+            roles.addAll(getPermissions(userRoleCache, user.getUserId(), version, roleService::selectRolePermissionByUserId));
         }
         return roles;
     }
@@ -65,6 +107,7 @@ public class SysPermissionService
         }
         else
         {
+            long version = checkVersion();
             List<SysRole> roles = user.getRoles();
             if (!CollectionUtils.isEmpty(roles))
             {
@@ -73,7 +116,7 @@ public class SysPermissionService
                 {
                     if (StringUtils.equals(role.getStatus(), UserConstants.ROLE_NORMAL) && !role.isAdmin())
                     {
-                        Set<String> rolePerms = menuService.selectMenuPermsByRoleId(role.getRoleId());
+                        Set<String> rolePerms = getPermissions(roleMenuCache, role.getRoleId(), version, menuService::selectMenuPermsByRoleId);
                         role.setPermissions(rolePerms);
                         perms.addAll(rolePerms);
                     }
@@ -81,9 +124,75 @@ public class SysPermissionService
             }
             else
             {
-                perms.addAll(menuService.selectMenuPermsByUserId(user.getUserId()));
+                perms.addAll(getPermissions(userMenuCache, user.getUserId(), version, menuService::selectMenuPermsByUserId));
             }
         }
         return perms;
     }
+
+    /**
+     * 读取缓存的权限，缓存项版本号与当前版本号不一致时重新加载（同一键只加载一次）
+     * 
+     * @param cache 权限缓存
+     * @param id 用户或角色ID
+     * @param version 开始加载时的权限版本号
+     * @param loader 权限加载方法
+     * @return 权限信息
+     */
+    private Set<String> getPermissions(Cache<Long, VersionedPermissions> cache, Long id, long version, Function<Long, Set<String>> loader)
+    {
+        VersionedPermissions cached = cache.getIfPresent(id);
+        if (cached != null && cached.version == version)
+        {
+            return cached.permissions;
+        }
+        return cache.asMap().compute(id, (key, old) -> old != null && old.version == version ? old
+                : new VersionedPermissions(version, Collections.unmodifiableSet(loader.apply(key)))).permissions;
+    }
+
+    /**
+     * 权限版本号变化时清空本地缓存
+     * 
+     * @return 当前权限版本号
+     */
+    private long checkVersion()
+    {
+        long version = permissionVersionService.getVersion();
+        if (version != cacheVersion)
+        {
+            synchronized (this)
+            {
+                if (version != cacheVersion)
+                {
+                    userRoleCache.invalidateAll();
+                    roleMenuCache.invalidateAll();
+                    userMenuCache.invalidateAll();
+                    cacheVersion = version;
+                }
+            }
+        }
+        return version;
+    }
+
+    /**
+     * 带版本号的权限缓存项
+     */
+    private static final class VersionedPermissions
+    {
+        /**
+         * 开始加载时的权限版本号
+         */
+        private final long version;
+
+        /**
+         * 权限信息
+         */
+        private final Set<String> permissions;
+
+        private VersionedPermissions(long version, Set<String> permissions)
+        {
+            this.version = version;
+            this.permissions = permissions;
+        }
+    }
 }
@@ -14,8 +14,7 @@ import com.ruoyi.common.utils.DateUtils;
 import com.ruoyi.common.utils.MessageUtils;
 import com.ruoyi.common.utils.SecurityUtils;
 import com.ruoyi.common.utils.StringUtils;
-import com.ruoyi.framework.manager.AsyncManager;
-import com.ruoyi.framework.manager.factory.AsyncFactory;
+import com.ruoyi.framework.manager.LogininforWriter;
 import com.ruoyi.system.service.ISysConfigService;
 import com.ruoyi.system.service.ISysUserService;
 
@@ -30,6 +29,9 @@ public class SysRegisterService
     @Autowired
     private ISysUserService userService;
 
+    @Autowired
+    private LogininforWriter logininforWriter;
+
     @Autowired
     private ISysConfigService configService;
 
@@ -86,7 +88,7 @@ public class SysRegisterService
             }
             else
             {
-                AsyncManager.me().execute(AsyncFactory.recordLogininfor(username, Constants.REGISTER, MessageUtils.message("user.register.success")));
+                logininforWriter.write(username, Constants.REGISTER, MessageUtils.message("user.register.success"));
             }
         }
         return msg;
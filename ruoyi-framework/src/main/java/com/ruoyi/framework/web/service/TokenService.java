@@ -1,27 +1,37 @@
 package com.ruoyi.framework.web.service;
 
+import java.security.Key;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import javax.crypto.spec.SecretKeySpec;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
-import com.ruoyi.common.constant.CacheConstants;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.ruoyi.common.constant.Constants;
 import com.ruoyi.common.core.domain.model.LoginUser;
-import com.ruoyi.common.core.redis.RedisCache;
 import com.ruoyi.common.utils.ServletUtils;
 import com.ruoyi.common.utils.StringUtils;
 import com.ruoyi.common.utils.http.UserAgentUtils;
 import com.ruoyi.common.utils.ip.AddressUtils;
 import com.ruoyi.common.utils.ip.IpUtils;
+import com.ruoyi.common.utils.sign.Sha256Utils;
 import com.ruoyi.common.utils.uuid.IdUtils;
+import com.ruoyi.framework.web.domain.StatelessLoginUser;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.impl.TextCodec;
 
 /**
  * token验证处理
@@ -45,14 +55,71 @@ public class TokenService
     @Value("${token.expireTime}")
     private int expireTime;
 
+    // 令牌自动续期方式（expire 仅延长有效期，full 重写整个用户信息）
+    @Value("${token.refreshMode:expire}")
+    private String refreshMode;
+
     protected static final long MILLIS_SECOND = 1000;
 
     protected static final long MILLIS_MINUTE = 60 * MILLIS_SECOND;
 
     private static final Long MILLIS_MINUTE_TWENTY = 20 * 60 * 1000L;
 
+    private static final String REFRESH_MODE_EXPIRE = "expire";
+
+    // 已验签令牌缓存最大条数
+    @Value("${token.verifiedCache.maximumSize:10000}")
+    private long verifiedMaximumSize;
+
+    @Autowired
+    private LoginUserCache loginUserCache;
+
+    @Autowired
+    private LoginSessionStore loginSessionStore;
+
     @Autowired
-    private RedisCache redisCache;
+    private StatelessTokenRegistry statelessTokenRegistry;
+
+    /**
+     * 签名密钥
+     */
+    private Key signingKey;
+
+    /**
+     * 令牌解析器（配置完成后线程安全，可复用）
+     */
+    private JwtParser jwtParser;
+
+    /**
+     * 已验签令牌缓存，令牌摘要 -> 数据声明
+     */
+    private Cache<String, Claims> verifiedTokenCache;
+
+    /**
+     * 正在续期的令牌，同一令牌的并发续期在本节点只执行一次
+     */
+    private final Set<String> extendingTokens = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    public void init()
+    {
+        signingKey = new SecretKeySpec(TextCodec.BASE64.decode(secret), SignatureAlgorithm.HS512.getJcaName());
+        jwtParser = Jwts.parser().setSigningKey(signingKey);
+        // 有状态令牌无过期声明，会话有效期以redis为准，此处只需按有效期淘汰；无状态令牌命中时另行校验过期声明
+        verifiedTokenCache = Caffeine.newBuilder().maximumSize(verifiedMaximumSize)
+                .expireAfterAccess(expireTime, TimeUnit.MINUTES).build();
+    }
+
+    /**
+     * 根据令牌uuid获取用户身份信息（不经过本地缓存）
+     * 
+     * @param token 令牌uuid
+     * @return 用户信息
+     */
+    public LoginUser getLoginUser(String token)
+    {
+        return loginSessionStore.get(token);
+    }
 
     /**
      * 获取用户身份信息
@@ -67,11 +134,23 @@ public class TokenService
         {
             try
             {
-                Claims claims = parseToken(token);
                 // 解析对应的权限以及用户信息
+                Claims claims = getClaims(token);
                 String uuid = (String) claims.get(Constants.LOGIN_USER_KEY);
-                String userKey = getTokenKey(uuid);
-                LoginUser user = redisCache.getCacheObject(userKey);
+                if (statelessTokenRegistry.isEnabled() && statelessTokenRegistry.isRevoked(uuid))
+                {
+                    return null;
+                }
+                LoginUser user = loginUserCache.get(uuid);
+                if (StringUtils.isNull(user))
+                {
+                    user = getStatelessLoginUser(uuid, claims);
+                    if (StringUtils.isNull(user))
+                    {
+                        user = loginSessionStore.get(uuid);
+                    }
+                    loginUserCache.put(uuid, user);
+                }
                 return user;
             }
             catch (Exception e)
@@ -100,8 +179,13 @@ public class TokenService
     {
         if (StringUtils.isNotEmpty(token))
         {
-            String userKey = getTokenKey(token);
-            redisCache.deleteObject(userKey);
+            if (statelessTokenRegistry.isEnabled())
+            {
+                statelessTokenRegistry.revoke(token);
+            }
+            loginSessionStore.delete(token);
+            loginUserCache.invalidate(token);
+            loginUserCache.publishInvalidate(token);
         }
     }
 
@@ -116,12 +200,23 @@ public class TokenService
         String token = IdUtils.fastUUID();
         loginUser.setToken(token);
         setUserAgent(loginUser);
-        refreshToken(loginUser);
+        boolean stateless = statelessTokenRegistry.isEnabled();
+        long timeout = stateless ? statelessTokenRegistry.getTimeout() : expireTime * MILLIS_MINUTE;
+        loginUser.setLoginTime(System.currentTimeMillis());
+        loginUser.setExpireTime(loginUser.getLoginTime() + timeout);
+        saveLoginUser(loginUser, timeout);
 
         Map<String, Object> claims = new HashMap<>();
         claims.put(Constants.LOGIN_USER_KEY, token);
         claims.put(Constants.JWT_USERNAME, loginUser.getUsername());
-        return createToken(claims);
+        if (stateless)
+        {
+            claims.put(Constants.JWT_USERID, loginUser.getUserId());
+            claims.put(Constants.JWT_DEPTID, loginUser.getDeptId());
+            claims.put(Constants.JWT_PERMISSIONS, loginSessionStore.getPermissionsKey(loginUser.getPermissions()));
+            return createToken(claims, new Date(loginUser.getExpireTime()));
+        }
+        return createToken(claims, null);
     }
 
     /**
@@ -132,11 +227,59 @@ public class TokenService
      */
     public void verifyToken(LoginUser loginUser)
     {
+        // 无状态令牌有效期由令牌过期声明决定，不续期
+        if (statelessTokenRegistry.isEnabled())
+        {
+            return;
+        }
         long expireTime = loginUser.getExpireTime();
         long currentTime = System.currentTimeMillis();
         if (expireTime - currentTime <= MILLIS_MINUTE_TWENTY)
         {
-            refreshToken(loginUser);
+            if (REFRESH_MODE_EXPIRE.equals(refreshMode))
+            {
+                extendToken(loginUser);
+            }
+            else
+            {
+                refreshToken(loginUser);
+            }
+        }
+    }
+
+    /**
+     * 延长令牌有效期，只续期redis键并记录新的过期时间，不重写用户信息
+     * 
+     * @param loginUser 登录信息
+     */
+    public void extendToken(LoginUser loginUser)
+    {
+        String token = loginUser.getToken();
+        if (!extendingTokens.add(token))
+        {
+            return;
+        }
+        try
+        {
+            // 已被其他请求续期
+            if (loginUser.getExpireTime() - System.currentTimeMillis() > MILLIS_MINUTE_TWENTY)
+            {
+                return;
+            }
+            long newExpireTime = System.currentTimeMillis() + expireTime * MILLIS_MINUTE;
+            if (loginSessionStore.expire(loginUser, expireTime * MILLIS_MINUTE, newExpireTime))
+            {
+                loginUser.setExpireTime(newExpireTime);
+                loginUserCache.put(token, loginUser);
+            }
+            else
+            {
+                loginUserCache.invalidate(token);
+            }
+        }
+        finally
+        {
+            extendingTokens.remove(token);
         }
     }
 
@@ -147,11 +290,34 @@ public class TokenService
      */
     public void refreshToken(LoginUser loginUser)
     {
+        if (statelessTokenRegistry.isEnabled())
+        {
+            // 无状态令牌过期时间固定，只更新会话内容，并标记令牌声明已过时
+            long timeout = loginUser.getExpireTime() - System.currentTimeMillis();
+            if (timeout > 0)
+            {
+                saveLoginUser(loginUser, timeout);
+                statelessTokenRegistry.markChanged(loginUser.getToken());
+            }
+            return;
+        }
         loginUser.setLoginTime(System.currentTimeMillis());
         loginUser.setExpireTime(loginUser.getLoginTime() + expireTime * MILLIS_MINUTE);
+        saveLoginUser(loginUser, expireTime * MILLIS_MINUTE);
+    }
+
+    /**
+     * 保存会话并通知各节点失效本地缓存
+     *
+     * @param loginUser 登录信息
+     * @param timeout 有效期（毫秒）
+     */
+    private void saveLoginUser(LoginUser loginUser, long timeout)
+    {
         // 根据uuid将loginUser缓存
-        String userKey = getTokenKey(loginUser.getToken());
-        redisCache.setCacheObject(userKey, loginUser, expireTime, TimeUnit.MINUTES);
+        loginSessionStore.set(loginUser, timeout);
+        loginUserCache.put(loginUser.getToken(), loginUser);
+        loginUserCache.publishInvalidate(loginUser.getToken());
     }
 
     /**
@@ -173,16 +339,76 @@ public class TokenService
      * 从数据声明生成令牌
      *
      * @param claims 数据声明
+     * @param expiration 过期时间，为空时不设置过期声明
      * @return 令牌
      */
-    private String createToken(Map<String, Object> claims)
+    private String createToken(Map<String, Object> claims, Date expiration)
     {
         String token = Jwts.builder()
                 .setClaims(claims)
-                .signWith(SignatureAlgorithm.HS512, secret).compact();
+                .setExpiration(expiration)
+                .signWith(SignatureAlgorithm.HS512, signingKey).compact();
         return token;
     }
 
+    /**
+     * 获取令牌数据声明，已验签的令牌直接取缓存结果
+     *
+     * @param token 令牌
+     * @return 数据声明
+     */
+    private Claims getClaims(String token)
+    {
+        String digest = Sha256Utils.hash(token);
+        Claims claims = verifiedTokenCache.getIfPresent(digest);
+        if (StringUtils.isNotNull(claims) && StringUtils.isNotNull(claims.getExpiration())
+                && claims.getExpiration().getTime() <= System.currentTimeMillis())
+        {
+            verifiedTokenCache.invalidate(digest);
+            claims = null;
+        }
+        if (StringUtils.isNull(claims))
+        {
+            claims = parseToken(token);
+            if (StringUtils.isNotEmpty((String) claims.get(Constants.LOGIN_USER_KEY)))
+            {
+                verifiedTokenCache.put(digest, claims);
+            }
+        }
+        return claims;
+    }
+
+    /**
+     * 由无状态令牌声明构造登录用户，不访问会话
+     *
+     * @param uuid 令牌uuid
+     * @param claims 数据声明
+     * @return 登录用户，非无状态令牌、声明已过时或会话已不存在返回null
+     */
+    private LoginUser getStatelessLoginUser(String uuid, Claims claims)
+    {
+        if (!statelessTokenRegistry.isEnabled() || StringUtils.isNull(claims.getExpiration())
+                || statelessTokenRegistry.isChanged(uuid))
+        {
+            return null;
+        }
+        // 仅在本地缓存未命中时确认会话仍存在，会话被清理或淘汰后不再认证
+        if (!loginSessionStore.exists(uuid))
+        {
+            return null;
+        }
+        Set<String> permissions = loginSessionStore.getPermissionSet((String) claims.get(Constants.JWT_PERMISSIONS));
+        if (StringUtils.isNull(permissions))
+        {
+            return null;
+        }
+        Number userId = (Number) claims.get(Constants.JWT_USERID);
+        Number deptId = (Number) claims.get(Constants.JWT_DEPTID);
+        return new StatelessLoginUser(uuid, StringUtils.isNotNull(userId) ? userId.longValue() : null,
+                StringUtils.isNotNull(deptId) ? deptId.longValue() : null, (String) claims.get(Constants.JWT_USERNAME),
+                claims.getExpiration().getTime(), permissions, loginSessionStore::get);
+    }
+
     /**
      * 从令牌中获取数据声明
      *
@@ -191,10 +417,7 @@ public class TokenService
      */
     private Claims parseToken(String token)
     {
-        return Jwts.parser()
-                .setSigningKey(secret)
-                .parseClaimsJws(token)
-                .getBody();
+        return jwtParser.parseClaimsJws(token).getBody();
     }
 
     /**
@@ -224,9 +447,4 @@ public class TokenService
         }
         return token;
     }
-
-    private String getTokenKey(String uuid)
-    {
-        return CacheConstants.LOGIN_TOKEN_KEY + uuid;
-    }
 }
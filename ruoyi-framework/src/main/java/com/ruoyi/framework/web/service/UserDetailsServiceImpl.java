@@ -61,6 +61,10 @@ public class UserDetailsServiceImpl implements UserDetailsService
 
     public UserDetails createLoginUser(SysUser user)
     {
-        return new LoginUser(user.getUserId(), user.getDeptId(), user, permissionService.getMenuPermission(user));
+        // 先取版本号再加载权限，期间发生变更时下次获取用户信息会重新加载
+        long permissionVersion = permissionService.getVersion();
+        LoginUser loginUser = new LoginUser(user.getUserId(), user.getDeptId(), user, permissionService.getMenuPermission(user));
+        loginUser.setPermissionVersion(permissionVersion);
+        return loginUser;
     }
 }
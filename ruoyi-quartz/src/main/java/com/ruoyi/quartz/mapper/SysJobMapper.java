@@ -25,6 +25,13 @@ public interface SysJobMapper
      */
     public List<SysJob> selectJobAll();
 
+    /**
+     * 查询调度任务数据版本号（记录数与最大创建、修改时间）
+     * 
+     * @return 版本号
+     */
+    public String selectJobVersion();
+
     /**
      * 通过调度ID查询调度任务信息
      * 
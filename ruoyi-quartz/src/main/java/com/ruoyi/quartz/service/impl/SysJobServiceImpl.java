@@ -10,6 +10,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import com.ruoyi.common.constant.ScheduleConstants;
+import com.ruoyi.common.core.redis.CacheWarmup;
 import com.ruoyi.common.exception.job.TaskException;
 import com.ruoyi.quartz.domain.SysJob;
 import com.ruoyi.quartz.mapper.SysJobMapper;
@@ -25,23 +26,52 @@ import com.ruoyi.quartz.util.ScheduleUtils;
 @Service
 public class SysJobServiceImpl implements ISysJobService
 {
+    /**
+     * 缓存预热名称
+     */
+    private static final String CACHE_NAME = "sys_job";
+
     @Autowired
     private Scheduler scheduler;
 
     @Autowired
     private SysJobMapper jobMapper;
 
+    @Autowired
+    private CacheWarmup cacheWarmup;
+
     /**
      * 项目启动时，初始化定时器 主要是防止手动修改数据库导致未同步到定时任务处理（注：不能手动修改数据库ID和任务组名，否则会导致脏数据）
+     * 内存存储每次启动都需要创建任务；持久化存储中的任务与数据库版本一致或其他节点正在重建时跳过
      */
     @PostConstruct
     public void init() throws SchedulerException, TaskException
     {
-        scheduler.clear();
-        List<SysJob> jobList = jobMapper.selectJobAll();
-        for (SysJob job : jobList)
+        String version = jobMapper.selectJobVersion();
+        boolean persistent = scheduler.getMetaData().isJobStoreSupportsPersistence();
+        if (persistent && (cacheWarmup.isCurrent(CACHE_NAME, version) || !cacheWarmup.tryLock(CACHE_NAME)))
         {
-            ScheduleUtils.createScheduleJob(scheduler, job);
+            return;
+        }
+        try
+        {
+            scheduler.clear();
+            List<SysJob> jobList = jobMapper.selectJobAll();
+            for (SysJob job : jobList)
+            {
+                ScheduleUtils.createScheduleJob(scheduler, job);
+            }
+            if (persistent)
+            {
+                cacheWarmup.markLoaded(CACHE_NAME, version);
+            }
+        }
+        finally
+        {
+            if (persistent)
+            {
+                cacheWarmup.unlock(CACHE_NAME);
+            }
         }
     }
 
@@ -0,0 +1,22 @@
+package com.ruoyi.quartz.task;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import com.ruoyi.system.service.ISysLogArchiveService;
+
+/**
+ * 日志归档任务（调用目标字符串：logArchiveTask.archive()）
+ * 
+ * @author ruoyi
+ */
+@Component("logArchiveTask")
+public class LogArchiveTask
+{
+    @Autowired
+    private ISysLogArchiveService logArchiveService;
+
+    public void archive()
+    {
+        logArchiveService.archiveExpiredLogs();
+    }
+}
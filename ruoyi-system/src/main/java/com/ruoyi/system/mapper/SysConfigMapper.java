@@ -42,6 +42,13 @@ public interface SysConfigMapper
      */
     public SysConfig checkConfigKeyUnique(String configKey);
 
+    /**
+     * 查询参数配置数据版本号（记录数与最大创建、修改时间）
+     * 
+     * @return 版本号
+     */
+    public String selectConfigVersion();
+
     /**
      * 新增参数配置
      * 
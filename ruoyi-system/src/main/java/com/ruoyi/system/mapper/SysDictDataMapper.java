@@ -52,6 +52,13 @@ public interface SysDictDataMapper
      */
     public int countDictDataByType(String dictType);
 
+    /**
+     * 查询字典数据版本号（字典数据记录数与最大创建、修改时间，以及字典类型最大修改时间）
+     * 
+     * @return 版本号
+     */
+    public String selectDictDataVersion();
+
     /**
      * 通过字典ID删除字典数据信息
      * 
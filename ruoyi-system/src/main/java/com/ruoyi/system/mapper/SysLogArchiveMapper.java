@@ -0,0 +1,61 @@
+package com.ruoyi.system.mapper;
+
+import java.util.Date;
+import java.util.List;
+import org.apache.ibatis.annotations.Param;
+
+/**
+ * 日志归档 数据层（表名与字段名由程序内部指定，不接收外部输入）
+ * 
+ * @author ruoyi
+ */
+public interface SysLogArchiveMapper
+{
+    /**
+     * 查询表的最早记录时间
+     * 
+     * @param tableName 表名
+     * @param timeColumn 时间字段
+     * @return 最早时间
+     */
+    public Date selectMinTime(@Param("tableName") String tableName, @Param("timeColumn") String timeColumn);
+
+    /**
+     * 按时间段删除记录
+     * 
+     * @param tableName 表名
+     * @param timeColumn 时间字段
+     * @param beginTime 开始时间（包含）
+     * @param endTime 结束时间（不包含）
+     * @param limit 单次删除条数
+     * @return 结果
+     */
+    public int deleteByTime(@Param("tableName") String tableName, @Param("timeColumn") String timeColumn,
+            @Param("beginTime") Date beginTime, @Param("endTime") Date endTime, @Param("limit") int limit);
+
+    /**
+     * 查询表的分区名称
+     * 
+     * @param tableName 表名
+     * @return 分区名称列表，未分区返回空
+     */
+    public List<String> selectPartitionNames(@Param("tableName") String tableName);
+
+    /**
+     * 从最大值分区中拆分出新分区
+     * 
+     * @param tableName 表名
+     * @param partitionName 新分区名称
+     * @param lessThan 新分区上界（yyyy-MM-dd）
+     */
+    public void addPartition(@Param("tableName") String tableName, @Param("partitionName") String partitionName,
+            @Param("lessThan") String lessThan);
+
+    /**
+     * 删除分区
+     * 
+     * @param tableName 表名
+     * @param partitionName 分区名称
+     */
+    public void dropPartition(@Param("tableName") String tableName, @Param("partitionName") String partitionName);
+}
@@ -1,6 +1,8 @@
 package com.ruoyi.system.mapper;
 
+import java.util.Date;
 import java.util.List;
+import org.apache.ibatis.annotations.Param;
 import com.ruoyi.system.domain.SysLogininfor;
 
 /**
@@ -17,6 +19,14 @@ public interface SysLogininforMapper
      */
     public void insertLogininfor(SysLogininfor logininfor);
 
+    /**
+     * 批量新增系统登录日志
+     * 
+     * @param logininforList 访问日志列表
+     * @return 结果
+     */
+    public int batchLogininfor(List<SysLogininfor> logininforList);
+
     /**
      * 查询系统登录日志集合
      * 
@@ -33,6 +43,17 @@ public interface SysLogininforMapper
      */
     public int deleteLogininforByIds(Long[] infoIds);
 
+    /**
+     * 按时间段分批查询系统登录日志（按ID升序）
+     * 
+     * @param beginTime 开始时间（包含）
+     * @param endTime 结束时间（不包含）
+     * @param lastId 上一批最后的ID
+     * @param limit 单批条数
+     * @return 登录记录集合
+     */
+    public List<SysLogininfor> selectLogininforByTime(@Param("beginTime") Date beginTime, @Param("endTime") Date endTime, @Param("lastId") Long lastId, @Param("limit") int limit);
+
     /**
      * 清空系统登录日志
      * 
@@ -1,6 +1,8 @@
 package com.ruoyi.system.mapper;
 
+import java.util.Date;
 import java.util.List;
+import org.apache.ibatis.annotations.Param;
 import com.ruoyi.system.domain.SysOperLog;
 
 /**
@@ -17,6 +19,14 @@ public interface SysOperLogMapper
      */
     public void insertOperlog(SysOperLog operLog);
 
+    /**
+     * 批量新增操作日志
+     * 
+     * @param operLogList 操作日志列表
+     * @return 结果
+     */
+    public int batchOperlog(List<SysOperLog> operLogList);
+
     /**
      * 查询系统操作日志集合
      * 
@@ -41,6 +51,17 @@ public interface SysOperLogMapper
      */
     public SysOperLog selectOperLogById(Long operId);
 
+    /**
+     * 按时间段分批查询操作日志（按ID升序）
+     * 
+     * @param beginTime 开始时间（包含）
+     * @param endTime 结束时间（不包含）
+     * @param lastId 上一批最后的ID
+     * @param limit 单批条数
+     * @return 操作日志集合
+     */
+    public List<SysOperLog> selectOperLogByTime(@Param("beginTime") Date beginTime, @Param("endTime") Date endTime, @Param("lastId") Long lastId, @Param("limit") int limit);
+
     /**
      * 清空操作日志
      */
@@ -1,6 +1,7 @@
 package com.ruoyi.system.service;
 
 import java.util.List;
+import com.ruoyi.common.utils.ip.IpFilter;
 import com.ruoyi.system.domain.SysConfig;
 
 /**
@@ -33,6 +34,31 @@ public interface ISysConfigService
      */
     public boolean selectCaptchaEnabled();
 
+    /**
+     * 根据键名查询布尔类型的参数
+     * 
+     * @param configKey 参数键名
+     * @param defaultValue 参数不存在或无法转换时的默认值
+     * @return 参数值
+     */
+    public boolean selectBooleanConfig(String configKey, boolean defaultValue);
+
+    /**
+     * 根据键名查询整数类型的参数
+     * 
+     * @param configKey 参数键名
+     * @return 参数值，不存在或无法转换时返回null
+     */
+    public Integer selectIntConfig(String configKey);
+
+    /**
+     * 根据键名查询IP过滤规则参数
+     * 
+     * @param configKey 参数键名
+     * @return 预解析的IP过滤规则
+     */
+    public IpFilter selectIpFilterConfig(String configKey);
+
     /**
      * 查询参数配置列表
      * 
@@ -0,0 +1,58 @@
+package com.ruoyi.system.service;
+
+import java.util.List;
+import java.util.Map;
+import com.ruoyi.system.domain.SysLogininfor;
+import com.ruoyi.system.domain.SysOperLog;
+
+/**
+ * 日志归档 服务层
+ * 
+ * @author ruoyi
+ */
+public interface ISysLogArchiveService
+{
+    /** 操作日志表 */
+    public static final String OPER_LOG_TABLE = "sys_oper_log";
+
+    /** 登录日志表 */
+    public static final String LOGININFOR_TABLE = "sys_logininfor";
+
+    /**
+     * 维护月分区，并将超过保留期限的日志归档到压缩文件后从数据库移除
+     */
+    public void archiveExpiredLogs();
+
+    /**
+     * 查询条件的时间范围是否包含已归档的月份
+     * 
+     * @param tableName 表名
+     * @param params 查询参数（beginTime、endTime）
+     * @return 结果
+     */
+    public boolean hasArchive(String tableName, Map<String, Object> params);
+
+    /**
+     * 查询已归档的操作日志（按ID倒序）
+     * 
+     * @param operLog 操作日志对象
+     * @return 操作日志集合
+     */
+    public List<SysOperLog> selectArchivedOperLogList(SysOperLog operLog);
+
+    /**
+     * 查询已归档的操作日志详细
+     * 
+     * @param operId 操作ID
+     * @return 操作日志对象
+     */
+    public SysOperLog selectArchivedOperLogById(Long operId);
+
+    /**
+     * 查询已归档的登录日志（按ID倒序）
+     * 
+     * @param logininfor 访问日志对象
+     * @return 登录记录集合
+     */
+    public List<SysLogininfor> selectArchivedLogininforList(SysLogininfor logininfor);
+}
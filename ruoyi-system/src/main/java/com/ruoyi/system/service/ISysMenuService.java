@@ -30,6 +30,13 @@ public interface ISysMenuService
      */
     public List<SysMenu> selectMenuList(SysMenu menu, Long userId);
 
+    /**
+     * 查询所有菜单权限
+     * 
+     * @return 权限列表
+     */
+    public Set<String> selectMenuPerms();
+
     /**
      * 根据用户ID查询权限
      * 
@@ -0,0 +1,21 @@
+package com.ruoyi.system.service;
+
+/**
+ * 角色菜单权限版本 服务层
+ * 
+ * @author ruoyi
+ */
+public interface ISysPermissionVersionService
+{
+    /**
+     * 获取当前权限版本号
+     * 
+     * @return 版本号
+     */
+    public long getVersion();
+
+    /**
+     * 角色、菜单或用户角色关联变更后递增版本号，并通知各节点
+     */
+    public void increaseVersion();
+}
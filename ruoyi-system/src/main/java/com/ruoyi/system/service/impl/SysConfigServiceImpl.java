@@ -1,18 +1,32 @@
 package com.ruoyi.system.service.impl;
 
-import java.util.Collection;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.stereotype.Service;
 import com.ruoyi.common.annotation.DataSource;
 import com.ruoyi.common.constant.CacheConstants;
 import com.ruoyi.common.constant.UserConstants;
+import com.ruoyi.common.core.redis.CacheWarmup;
 import com.ruoyi.common.core.redis.RedisCache;
 import com.ruoyi.common.core.text.Convert;
 import com.ruoyi.common.enums.DataSourceType;
 import com.ruoyi.common.exception.ServiceException;
 import com.ruoyi.common.utils.StringUtils;
+import com.ruoyi.common.utils.ip.IpFilter;
 import com.ruoyi.system.domain.SysConfig;
 import com.ruoyi.system.mapper.SysConfigMapper;
 import com.ruoyi.system.service.ISysConfigService;
@@ -20,24 +34,72 @@ import com.ruoyi.system.service.ISysConfigService;
 /**
  * 参数配置 服务层实现
  * 
+ * 查询参数读取本地只读快照，快照从数据库整体加载后原子替换，并预先转换布尔、整数值；
+ * 参数变更后通过 redis 广播通知其他节点重新加载，快照超过刷新间隔也会重新加载，避免广播丢失导致长期不一致。
+ * 启动时 redis 中的参数缓存与数据库版本一致则不再重写，否则在后台重写，期间查询由本地快照提供。
+ * 
  * @author ruoyi
  */
 @Service
-public class SysConfigServiceImpl implements ISysConfigService
+public class SysConfigServiceImpl implements ISysConfigService, MessageListener
 {
+    private static final Logger log = LoggerFactory.getLogger(SysConfigServiceImpl.class);
+
+    /**
+     * 本地快照刷新间隔（毫秒）
+     */
+    private static final long REFRESH_INTERVAL = 5 * 60 * 1000L;
+
+    /**
+     * 缓存预热名称
+     */
+    private static final String CACHE_NAME = "sys_config";
+
     @Autowired
     private SysConfigMapper configMapper;
 
     @Autowired
     private RedisCache redisCache;
 
+    @Autowired
+    private RedisMessageListenerContainer listenerContainer;
+
+    @Autowired
+    private CacheWarmup cacheWarmup;
+
+    private volatile ConfigSnapshot snapshot = ConfigSnapshot.EMPTY;
+
+    private volatile long refreshTime;
+
+    /**
+     * 是否有线程正在刷新过期快照
+     */
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+
     /**
-     * 项目启动时，初始化参数到缓存
+     * 项目启动时，初始化参数到缓存，并订阅其他节点的参数变更
      */
     @PostConstruct
     public void init()
     {
-        loadingConfigCache();
+        listenerContainer.addMessageListener(this, new ChannelTopic(CacheConstants.SYS_CONFIG_CHANNEL));
+        String version = configMapper.selectConfigVersion();
+        List<SysConfig> configsList = configMapper.selectConfigList(new SysConfig());
+        snapshot = new ConfigSnapshot(configsList);
+        refreshTime = System.currentTimeMillis();
+        cacheWarmup.warmup(CACHE_NAME, version, CacheConstants.SYS_CONFIG_KEY, () -> writeConfigCache(configsList));
+    }
+
+    /**
+     * 其他节点参数变更时重新加载本地快照
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern)
+    {
+        if (!RedisCache.NODE_ID.equals(redisCache.getMessageBody(message)))
+        {
+            refreshSnapshot();
+        }
     }
 
     /**
@@ -64,20 +126,8 @@ public class SysConfigServiceImpl implements ISysConfigService
     @Override
     public String selectConfigByKey(String configKey)
     {
-        String configValue = Convert.toStr(redisCache.getCacheObject(getCacheKey(configKey)));
-        if (StringUtils.isNotEmpty(configValue))
-        {
-            return configValue;
-        }
-        SysConfig config = new SysConfig();
-        config.setConfigKey(configKey);
-        SysConfig retConfig = configMapper.selectConfig(config);
-        if (StringUtils.isNotNull(retConfig))
-        {
-            redisCache.setCacheObject(getCacheKey(configKey), retConfig.getConfigValue());
-            return retConfig.getConfigValue();
-        }
-        return StringUtils.EMPTY;
+        String configValue = getSnapshot().values.get(configKey);
+        return StringUtils.isNotNull(configValue) ? configValue : StringUtils.EMPTY;
     }
 
     /**
@@ -88,12 +138,45 @@ public class SysConfigServiceImpl implements ISysConfigService
     @Override
     public boolean selectCaptchaEnabled()
     {
-        String captchaEnabled = selectConfigByKey("sys.account.captchaEnabled");
-        if (StringUtils.isEmpty(captchaEnabled))
-        {
-            return true;
-        }
-        return Convert.toBool(captchaEnabled);
+        return selectBooleanConfig("sys.account.captchaEnabled", true);
+    }
+
+    /**
+     * 根据键名查询布尔类型的参数
+     * 
+     * @param configKey 参数键名
+     * @param defaultValue 参数不存在或无法转换时的默认值
+     * @return 参数值
+     */
+    @Override
+    public boolean selectBooleanConfig(String configKey, boolean defaultValue)
+    {
+        Boolean value = getSnapshot().booleans.get(configKey);
+        return StringUtils.isNotNull(value) ? value : defaultValue;
+    }
+
+    /**
+     * 根据键名查询整数类型的参数
+     * 
+     * @param configKey 参数键名
+     * @return 参数值，不存在或无法转换时返回null
+     */
+    @Override
+    public Integer selectIntConfig(String configKey)
+    {
+        return getSnapshot().integers.get(configKey);
+    }
+
+    /**
+     * 根据键名查询IP过滤规则参数
+     * 
+     * @param configKey 参数键名
+     * @return 预解析的IP过滤规则
+     */
+    @Override
+    public IpFilter selectIpFilterConfig(String configKey)
+    {
+        return getSnapshot().getIpFilter(configKey);
     }
 
     /**
@@ -121,6 +204,7 @@ public class SysConfigServiceImpl implements ISysConfigService
         if (row > 0)
         {
             redisCache.setCacheObject(getCacheKey(config.getConfigKey()), config.getConfigValue());
+            publishChange();
         }
         return row;
     }
@@ -144,6 +228,7 @@ public class SysConfigServiceImpl implements ISysConfigService
         if (row > 0)
         {
             redisCache.setCacheObject(getCacheKey(config.getConfigKey()), config.getConfigValue());
+            publishChange();
         }
         return row;
     }
@@ -156,6 +241,8 @@ public class SysConfigServiceImpl implements ISysConfigService
     @Override
     public void deleteConfigByIds(Long[] configIds)
     {
+        // 先校验全部参数，避免删除一部分后才发现内置参数
+        List<SysConfig> configs = new ArrayList<>();
         for (Long configId : configIds)
         {
             SysConfig config = selectConfigById(configId);
@@ -163,8 +250,25 @@ public class SysConfigServiceImpl implements ISysConfigService
             {
                 throw new ServiceException(String.format("内置参数【%1$s】不能删除 ", config.getConfigKey()));
             }
-            configMapper.deleteConfigById(configId);
-            redisCache.deleteObject(getCacheKey(config.getConfigKey()));
+            configs.add(config);
+        }
+        List<String> cacheKeys = new ArrayList<>();
+        try
+        {
+            for (SysConfig config : configs)
+            {
+                configMapper.deleteConfigById(config.getConfigId());
+                cacheKeys.add(getCacheKey(config.getConfigKey()));
+            }
+        }
+        finally
+        {
+            // 删除中途失败时，已删除参数的缓存同样需要清理
+            if (!cacheKeys.isEmpty())
+            {
+                redisCache.multiDelete(cacheKeys);
+                publishChange();
+            }
         }
     }
 
@@ -174,11 +278,25 @@ public class SysConfigServiceImpl implements ISysConfigService
     @Override
     public void loadingConfigCache()
     {
+        String version = configMapper.selectConfigVersion();
         List<SysConfig> configsList = configMapper.selectConfigList(new SysConfig());
+        writeConfigCache(configsList);
+        snapshot = new ConfigSnapshot(configsList);
+        refreshTime = System.currentTimeMillis();
+        cacheWarmup.markLoaded(CACHE_NAME, version);
+    }
+
+    /**
+     * 批量写入参数缓存
+     */
+    private void writeConfigCache(List<SysConfig> configsList)
+    {
+        Map<String, String> cacheMap = new LinkedHashMap<>();
         for (SysConfig config : configsList)
         {
-            redisCache.setCacheObject(getCacheKey(config.getConfigKey()), config.getConfigValue());
+            cacheMap.put(getCacheKey(config.getConfigKey()), config.getConfigValue());
         }
+        redisCache.multiSet(cacheMap);
     }
 
     /**
@@ -187,8 +305,7 @@ public class SysConfigServiceImpl implements ISysConfigService
     @Override
     public void clearConfigCache()
     {
-        Collection<String> keys = redisCache.keys(CacheConstants.SYS_CONFIG_KEY + "*");
-        redisCache.deleteObject(keys);
+        redisCache.deleteByPattern(CacheConstants.SYS_CONFIG_KEY + "*");
     }
 
     /**
@@ -199,6 +316,7 @@ public class SysConfigServiceImpl implements ISysConfigService
     {
         clearConfigCache();
         loadingConfigCache();
+        publishChange();
     }
 
     /**
@@ -229,4 +347,116 @@ public class SysConfigServiceImpl implements ISysConfigService
     {
         return CacheConstants.SYS_CONFIG_KEY + configKey;
     }
+
+    /**
+     * 获取本地快照，超过刷新间隔时由一个请求线程重新加载，其他线程不等待，继续使用原快照
+     */
+    private ConfigSnapshot getSnapshot()
+    {
+        if (System.currentTimeMillis() - refreshTime > REFRESH_INTERVAL && refreshing.compareAndSet(false, true))
+        {
+            try
+            {
+                // 再次检查，其他线程可能刚完成刷新
+                if (System.currentTimeMillis() - refreshTime > REFRESH_INTERVAL)
+                {
+                    refreshSnapshot();
+                }
+            }
+            finally
+            {
+                refreshing.set(false);
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * 从数据库重新加载本地快照，失败时保留原快照
+     */
+    private synchronized void refreshSnapshot()
+    {
+        refreshTime = System.currentTimeMillis();
+        try
+        {
+            snapshot = new ConfigSnapshot(configMapper.selectConfigList(new SysConfig()));
+        }
+        catch (Exception e)
+        {
+            log.error("加载参数配置快照异常'{}'", e.getMessage());
+        }
+    }
+
+    /**
+     * 重新加载本地快照并通知其他节点
+     */
+    private void publishChange()
+    {
+        refreshSnapshot();
+        try
+        {
+            redisCache.publish(CacheConstants.SYS_CONFIG_CHANNEL, RedisCache.NODE_ID);
+        }
+        catch (Exception e)
+        {
+            log.error("发送参数变更通知异常'{}'", e.getMessage());
+        }
+    }
+
+    /**
+     * 参数配置只读快照
+     */
+    private static final class ConfigSnapshot
+    {
+        private static final ConfigSnapshot EMPTY = new ConfigSnapshot(Collections.emptyList());
+
+        private final Map<String, String> values;
+
+        private final Map<String, Boolean> booleans;
+
+        private final Map<String, Integer> integers;
+
+        /** IP过滤规则按需解析，随快照一起丢弃 */
+        private final Map<String, IpFilter> ipFilters = new ConcurrentHashMap<>();
+
+        private ConfigSnapshot(List<SysConfig> configs)
+        {
+            Map<String, String> values = new HashMap<>();
+            Map<String, Boolean> booleans = new HashMap<>();
+            Map<String, Integer> integers = new HashMap<>();
+            for (SysConfig config : configs)
+            {
+                String key = config.getConfigKey();
+                String value = config.getConfigValue();
+                if (key == null || value == null)
+                {
+                    continue;
+                }
+                values.put(key, value);
+                Boolean bool = Convert.toBool(value, null);
+                if (bool != null)
+                {
+                    booleans.put(key, bool);
+                }
+                Integer integer = Convert.toInt(value, null);
+                if (integer != null)
+                {
+                    integers.put(key, integer);
+                }
+            }
+            this.values = Collections.unmodifiableMap(values);
+            this.booleans = Collections.unmodifiableMap(booleans);
+            this.integers = Collections.unmodifiableMap(integers);
+        }
+
+        private IpFilter getIpFilter(String configKey)
+        {
+            String value = values.get(configKey);
+            if (StringUtils.isEmpty(value))
+            {
+                return IpFilter.EMPTY;
+            }
+            return ipFilters.computeIfAbsent(configKey, key -> new IpFilter(value));
+        }
+    }
 }
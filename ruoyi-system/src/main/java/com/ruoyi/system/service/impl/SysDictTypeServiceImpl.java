@@ -3,14 +3,25 @@ package com.ruoyi.system.service.impl;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import com.ruoyi.common.constant.CacheConstants;
 import com.ruoyi.common.constant.UserConstants;
 import com.ruoyi.common.core.domain.entity.SysDictData;
 import com.ruoyi.common.core.domain.entity.SysDictType;
+import com.ruoyi.common.core.redis.CacheWarmup;
+import com.ruoyi.common.core.redis.RedisCache;
 import com.ruoyi.common.exception.ServiceException;
 import com.ruoyi.common.utils.DictUtils;
 import com.ruoyi.common.utils.StringUtils;
@@ -21,24 +32,104 @@ import com.ruoyi.system.service.ISysDictTypeService;
 /**
  * 字典 业务层处理
  * 
+ * 启动时 redis 中的字典缓存与数据库版本一致则不再加载，否则在后台批量加载，加载完成前字典查询直接读取数据库。
+ * 加载失败时定时重试，直到缓存可用。
+ * 
  * @author ruoyi
  */
 @Service
-public class SysDictTypeServiceImpl implements ISysDictTypeService
+public class SysDictTypeServiceImpl implements ISysDictTypeService, MessageListener
 {
+    private static final Logger log = LoggerFactory.getLogger(SysDictTypeServiceImpl.class);
+
+    /**
+     * 缓存预热名称
+     */
+    private static final String CACHE_NAME = "sys_dict";
+
+    /**
+     * 缓存预热失败后的重试间隔（秒）
+     */
+    private static final long WARMUP_RETRY_INTERVAL = 30;
+
     @Autowired
     private SysDictTypeMapper dictTypeMapper;
 
     @Autowired
     private SysDictDataMapper dictDataMapper;
 
+    @Autowired
+    private RedisCache redisCache;
+
+    @Autowired
+    private RedisMessageListenerContainer listenerContainer;
+
+    @Autowired
+    private CacheWarmup cacheWarmup;
+
+    @Autowired
+    private ScheduledExecutorService scheduledExecutorService;
+
     /**
-     * 项目启动时，初始化字典到缓存
+     * 字典缓存是否与数据库一致（加载完成前直接查询数据库）
+     */
+    private volatile boolean warm;
+
+    /**
+     * 项目启动时，初始化字典到缓存，并订阅其他节点的字典变更
      */
     @PostConstruct
     public void init()
     {
-        loadingDictCache();
+        listenerContainer.addMessageListener(this, new ChannelTopic(CacheConstants.SYS_DICT_CHANNEL));
+        warmupDictCache();
+    }
+
+    /**
+     * 在后台预热字典缓存，失败时定时重试（期间已同步加载则不再预热）
+     */
+    private void warmupDictCache()
+    {
+        if (warm)
+        {
+            return;
+        }
+        String version = dictDataMapper.selectDictDataVersion();
+        cacheWarmup.warmup(CACHE_NAME, version, CacheConstants.SYS_DICT_KEY, this::writeDictCache).whenComplete((result, e) -> {
+            if (e == null)
+            {
+                warm = true;
+            }
+            else
+            {
+                scheduleWarmup();
+            }
+        });
+    }
+
+    private void scheduleWarmup()
+    {
+        log.warn("字典缓存预热失败，{}秒后重试", WARMUP_RETRY_INTERVAL);
+        scheduledExecutorService.schedule(() -> {
+            try
+            {
+                warmupDictCache();
+            }
+            catch (Exception e)
+            {
+                log.error("字典缓存预热异常'{}'", e.getMessage());
+                scheduleWarmup();
+            }
+        }, WARMUP_RETRY_INTERVAL, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 其他节点字典变更时丢弃本地字典索引
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern)
+    {
+        DictUtils.onDictChanged(redisCache.getMessageBody(message));
     }
 
     /**
@@ -73,6 +164,11 @@ public class SysDictTypeServiceImpl implements ISysDictTypeService
     @Override
     public List<SysDictData> selectDictDataByType(String dictType)
     {
+        if (!warm)
+        {
+            List<SysDictData> dictDatas = dictDataMapper.selectDictDataByType(dictType);
+            return StringUtils.isNotEmpty(dictDatas) ? dictDatas : null;
+        }
         List<SysDictData> dictDatas = DictUtils.getDictCache(dictType);
         if (StringUtils.isNotEmpty(dictDatas))
         {
@@ -136,14 +232,26 @@ public class SysDictTypeServiceImpl implements ISysDictTypeService
      */
     @Override
     public void loadingDictCache()
+    {
+        String version = dictDataMapper.selectDictDataVersion();
+        writeDictCache();
+        cacheWarmup.markLoaded(CACHE_NAME, version);
+        warm = true;
+    }
+
+    /**
+     * 从数据库读取全部正常状态的字典数据并批量写入缓存
+     */
+    private void writeDictCache()
     {
         SysDictData dictData = new SysDictData();
         dictData.setStatus("0");
         Map<String, List<SysDictData>> dictDataMap = dictDataMapper.selectDictDataList(dictData).stream().collect(Collectors.groupingBy(SysDictData::getDictType));
         for (Map.Entry<String, List<SysDictData>> entry : dictDataMap.entrySet())
         {
-            DictUtils.setDictCache(entry.getKey(), entry.getValue().stream().sorted(Comparator.comparing(SysDictData::getDictSort)).collect(Collectors.toList()));
+            entry.setValue(entry.getValue().stream().sorted(Comparator.comparing(SysDictData::getDictSort)).collect(Collectors.toList()));
         }
+        DictUtils.setDictCache(dictDataMap);
     }
 
     /**
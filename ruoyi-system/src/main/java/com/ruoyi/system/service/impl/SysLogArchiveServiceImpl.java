@@ -0,0 +1,495 @@
+package com.ruoyi.system.service.impl;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import jakarta.annotation.PostConstruct;
+import org.apache.commons.lang3.ArrayUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import com.alibaba.fastjson2.JSON;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ruoyi.common.config.RuoYiConfig;
+import com.ruoyi.common.utils.DateUtils;
+import com.ruoyi.common.utils.StringUtils;
+import com.ruoyi.system.domain.SysLogininfor;
+import com.ruoyi.system.domain.SysOperLog;
+import com.ruoyi.system.mapper.SysLogArchiveMapper;
+import com.ruoyi.system.mapper.SysLogininforMapper;
+import com.ruoyi.system.mapper.SysOperLogMapper;
+import com.ruoyi.system.service.ISysLogArchiveService;
+
+/**
+ * 日志归档 服务层处理
+ *
+ * 超过保留期限的日志按月导出为 归档路径/表名/yyyyMM-时间戳-最小ID-最大ID.json.gz（每行一条JSON，按ID升序），再从数据库移除。
+ * 表按月分区时（RANGE COLUMNS(时间字段)，分区名 pyyyyMM，另有 p_future 最大值分区，主键需包含时间字段），
+ * 自动预建后续月份分区，归档后直接删除对应分区；未分区的表按时间段分批删除。
+ *
+ * @author ruoyi
+ */
+@Service
+public class SysLogArchiveServiceImpl implements ISysLogArchiveService
+{
+    private static final Logger log = LoggerFactory.getLogger(SysLogArchiveServiceImpl.class);
+
+    private static final DateTimeFormatter MONTH_FORMATTER = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private static final String ARCHIVE_SUFFIX = ".json.gz";
+
+    private static final String FUTURE_PARTITION = "p_future";
+
+    // 数据库中保留的月数（含当月）
+    @Value("${logArchive.retainMonths:6}")
+    private int retainMonths;
+
+    // 预先创建的分区月数（含当月）
+    @Value("${logArchive.preCreateMonths:3}")
+    private int preCreateMonths;
+
+    // 单批导出与删除条数
+    @Value("${logArchive.batchSize:1000}")
+    private int batchSize;
+
+    // 归档查询结果缓存的最大记录数
+    @Value("${logArchive.cacheRows:100000}")
+    private long cacheRows;
+
+    /**
+     * 归档查询结果缓存，键包含表名、归档文件与查询条件，翻页时无需重复解压
+     */
+    private Cache<String, List<?>> archiveCache;
+
+    @Autowired
+    private SysLogArchiveMapper archiveMapper;
+
+    @Autowired
+    private SysOperLogMapper operLogMapper;
+
+    @Autowired
+    private SysLogininforMapper logininforMapper;
+
+    @PostConstruct
+    public void init()
+    {
+        archiveCache = Caffeine.newBuilder().maximumWeight(cacheRows).weigher((String key, List<?> value) -> value.size() + 1)
+                .expireAfterWrite(5, TimeUnit.MINUTES).build();
+    }
+
+    /**
+     * 维护月分区，并将超过保留期限的日志归档到压缩文件后从数据库移除
+     */
+    @Override
+    public void archiveExpiredLogs()
+    {
+        archiveTable(OPER_LOG_TABLE, "oper_time", operLogMapper::selectOperLogByTime, SysOperLog::getOperId);
+        archiveTable(LOGININFOR_TABLE, "login_time", logininforMapper::selectLogininforByTime, SysLogininfor::getInfoId);
+    }
+
+    /**
+     * 查询条件的时间范围是否包含已归档的月份
+     *
+     * @param tableName 表名
+     * @param params 查询参数（beginTime、endTime）
+     * @return 结果
+     */
+    @Override
+    public boolean hasArchive(String tableName, Map<String, Object> params)
+    {
+        // 未指定开始时间的查询只查数据库，避免默认列表扫描归档文件
+        Date beginTime = DateUtils.parseDate(params.get("beginTime"));
+        if (beginTime == null)
+        {
+            return false;
+        }
+        return !selectArchiveFiles(tableName, beginTime, DateUtils.parseDate(params.get("endTime"))).isEmpty();
+    }
+
+    /**
+     * 查询已归档的操作日志（按ID倒序）
+     *
+     * @param operLog 操作日志对象
+     * @return 操作日志集合
+     */
+    @Override
+    public List<SysOperLog> selectArchivedOperLogList(SysOperLog operLog)
+    {
+        Date beginTime = DateUtils.parseDate(operLog.getParams().get("beginTime"));
+        Date endTime = DateUtils.parseDate(operLog.getParams().get("endTime"));
+        String criteria = StringUtils.join(new Object[] { operLog.getOperIp(), operLog.getTitle(), operLog.getBusinessType(),
+                StringUtils.join(operLog.getBusinessTypes(), ","), operLog.getStatus(), operLog.getOperName(), operLog.getParams().get("beginTime"), operLog.getParams().get("endTime") }, "|");
+        return readArchive(OPER_LOG_TABLE, beginTime, endTime, criteria, SysOperLog.class, SysOperLog::getOperId,
+                item -> containsIgnoreCase(item.getOperIp(), operLog.getOperIp())
+                        && containsIgnoreCase(item.getTitle(), operLog.getTitle())
+                        && (operLog.getBusinessType() == null || operLog.getBusinessType().equals(item.getBusinessType()))
+                        && (ArrayUtils.isEmpty(operLog.getBusinessTypes()) || ArrayUtils.contains(operLog.getBusinessTypes(), item.getBusinessType()))
+                        && (operLog.getStatus() == null || operLog.getStatus().equals(item.getStatus()))
+                        && containsIgnoreCase(item.getOperName(), operLog.getOperName())
+                        && inRange(item.getOperTime(), beginTime, endTime));
+    }
+
+    /**
+     * 查询已归档的操作日志详细
+     *
+     * @param operId 操作ID
+     * @return 操作日志对象
+     */
+    @Override
+    public SysOperLog selectArchivedOperLogById(Long operId)
+    {
+        return findArchive(OPER_LOG_TABLE, operId, SysOperLog.class, SysOperLog::getOperId);
+    }
+
+    /**
+     * 查询已归档的登录日志（按ID倒序）
+     *
+     * @param logininfor 访问日志对象
+     * @return 登录记录集合
+     */
+    @Override
+    public List<SysLogininfor> selectArchivedLogininforList(SysLogininfor logininfor)
+    {
+        Date beginTime = DateUtils.parseDate(logininfor.getParams().get("beginTime"));
+        Date endTime = DateUtils.parseDate(logininfor.getParams().get("endTime"));
+        String criteria = StringUtils.join(new Object[] { logininfor.getIpaddr(), logininfor.getStatus(), logininfor.getUserName(),
+                logininfor.getParams().get("beginTime"), logininfor.getParams().get("endTime") }, "|");
+        return readArchive(LOGININFOR_TABLE, beginTime, endTime, criteria, SysLogininfor.class, SysLogininfor::getInfoId,
+                item -> containsIgnoreCase(item.getIpaddr(), logininfor.getIpaddr())
+                        && (StringUtils.isEmpty(logininfor.getStatus()) || logininfor.getStatus().equals(item.getStatus()))
+                        && containsIgnoreCase(item.getUserName(), logininfor.getUserName())
+                        && inRange(item.getLoginTime(), beginTime, endTime));
+    }
+
+    /**
+     * 归档单张表
+     */
+    private <T> void archiveTable(String tableName, String timeColumn, BatchSelect<T> select, Function<T, Long> idOf)
+    {
+        try
+        {
+            List<String> partitions = maintainPartitions(tableName);
+            YearMonth retainFrom = YearMonth.now().minusMonths(Math.max(1, retainMonths) - 1);
+            Date minTime = archiveMapper.selectMinTime(tableName, timeColumn);
+            if (minTime == null)
+            {
+                return;
+            }
+            for (YearMonth month = toMonth(minTime); month.isBefore(retainFrom); month = month.plusMonths(1))
+            {
+                archiveMonth(tableName, timeColumn, month, partitions, select, idOf);
+            }
+        }
+        catch (Exception e)
+        {
+            log.error("归档{}异常'{}'", tableName, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 导出一个月的数据并从数据库移除，导出文件完整写入后才会删除数据
+     */
+    private <T> void archiveMonth(String tableName, String timeColumn, YearMonth month, List<String> partitions,
+            BatchSelect<T> select, Function<T, Long> idOf) throws IOException
+    {
+        Date beginTime = DateUtils.toDate(month.atDay(1));
+        Date endTime = DateUtils.toDate(month.plusMonths(1).atDay(1));
+        File dir = new File(RuoYiConfig.getArchivePath(), tableName);
+        if (!dir.exists() && !dir.mkdirs())
+        {
+            throw new IOException("无法创建归档目录 " + dir.getPath());
+        }
+        // 文件名带时间戳，重复归档同一月份时不会覆盖已有文件
+        String name = month.format(MONTH_FORMATTER) + "-" + System.currentTimeMillis();
+        File tmp = new File(dir, name + ".tmp");
+        long count = 0;
+        Long minId = null;
+        Long lastId = 0L;
+        try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(new GZIPOutputStream(new FileOutputStream(tmp)), StandardCharsets.UTF_8)))
+        {
+            List<T> rows;
+            do
+            {
+                rows = select.select(beginTime, endTime, lastId, batchSize);
+                for (T row : rows)
+                {
+                    writer.write(JSON.toJSONString(row));
+                    writer.newLine();
+                }
+                if (!rows.isEmpty())
+                {
+                    minId = minId == null ? idOf.apply(rows.get(0)) : minId;
+                    lastId = idOf.apply(rows.get(rows.size() - 1));
+                    count += rows.size();
+                }
+            }
+            while (rows.size() >= batchSize);
+        }
+        catch (IOException | RuntimeException e)
+        {
+            Files.deleteIfExists(tmp.toPath());
+            throw e;
+        }
+        if (count > 0)
+        {
+            // 文件名记录ID范围，按ID查询时只需读取范围内的文件
+            Files.move(tmp.toPath(), new File(dir, name + "-" + minId + "-" + lastId + ARCHIVE_SUFFIX).toPath(), StandardCopyOption.ATOMIC_MOVE);
+        }
+        else
+        {
+            Files.deleteIfExists(tmp.toPath());
+        }
+        String partition = "p" + month.format(MONTH_FORMATTER);
+        if (partitions.contains(partition))
+        {
+            archiveMapper.dropPartition(tableName, partition);
+            partitions.remove(partition);
+        }
+        else if (count > 0)
+        {
+            while (archiveMapper.deleteByTime(tableName, timeColumn, beginTime, endTime, batchSize) > 0)
+            {
+                // 分批删除，避免大事务长时间锁表
+            }
+        }
+        log.info("归档{} {}月数据{}条", tableName, month, count);
+    }
+
+    /**
+     * 为按月分区的表预建后续月份分区
+     *
+     * @return 当前分区名称，未分区返回空列表
+     */
+    private List<String> maintainPartitions(String tableName)
+    {
+        List<String> partitions = new ArrayList<>(archiveMapper.selectPartitionNames(tableName));
+        if (partitions.isEmpty())
+        {
+            return partitions;
+        }
+        if (!partitions.contains(FUTURE_PARTITION))
+        {
+            log.warn("{}缺少{}分区，跳过分区维护", tableName, FUTURE_PARTITION);
+            return partitions;
+        }
+        YearMonth month = YearMonth.now();
+        for (int i = 0; i < Math.max(1, preCreateMonths); i++, month = month.plusMonths(1))
+        {
+            String partition = "p" + month.format(MONTH_FORMATTER);
+            if (!partitions.contains(partition))
+            {
+                archiveMapper.addPartition(tableName, partition, month.plusMonths(1).atDay(1).toString());
+                partitions.add(partition);
+                log.info("{}新增分区{}", tableName, partition);
+            }
+        }
+        return partitions;
+    }
+
+    /**
+     * 按月份倒序读取时间范围内的归档文件，同一记录重复归档时只保留一条，结果按查询条件缓存
+     */
+    @SuppressWarnings("unchecked")
+    private <T> List<T> readArchive(String tableName, Date beginTime, Date endTime, String criteria, Class<T> clazz,
+            Function<T, Long> idOf, Predicate<T> filter)
+    {
+        NavigableMap<YearMonth, List<File>> archiveFiles = selectArchiveFiles(tableName, beginTime, endTime);
+        // 归档文件写入后不再修改，新增归档会改变文件列表，从而使用新的缓存键
+        StringBuilder key = new StringBuilder(tableName).append('|').append(criteria);
+        for (List<File> files : archiveFiles.values())
+        {
+            for (File file : files)
+            {
+                key.append('|').append(file.getName());
+            }
+        }
+        return (List<T>) archiveCache.get(key.toString(), k -> readArchive(archiveFiles, clazz, idOf, filter));
+    }
+
+    private <T> List<T> readArchive(NavigableMap<YearMonth, List<File>> archiveFiles, Class<T> clazz, Function<T, Long> idOf,
+            Predicate<T> filter)
+    {
+        List<T> result = new ArrayList<>();
+        Set<Long> ids = new HashSet<>();
+        for (List<File> files : archiveFiles.descendingMap().values())
+        {
+            for (File file : files)
+            {
+                try (BufferedReader reader = new BufferedReader(new InputStreamReader(new GZIPInputStream(new FileInputStream(file)), StandardCharsets.UTF_8)))
+                {
+                    String line;
+                    while ((line = reader.readLine()) != null)
+                    {
+                        T row = JSON.parseObject(line, clazz);
+                        if (row != null && ids.add(idOf.apply(row)) && filter.test(row))
+                        {
+                            result.add(row);
+                        }
+                    }
+                }
+                catch (IOException e)
+                {
+                    log.error("读取归档文件{}异常'{}'", file.getPath(), e.getMessage());
+                }
+            }
+        }
+        result.sort(Comparator.comparing(idOf, Comparator.nullsLast(Comparator.reverseOrder())));
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * 按ID查找归档记录，只读取ID范围包含该ID的文件，找到即返回
+     */
+    private <T> T findArchive(String tableName, Long id, Class<T> clazz, Function<T, Long> idOf)
+    {
+        for (List<File> files : selectArchiveFiles(tableName, null, null).descendingMap().values())
+        {
+            for (File file : files)
+            {
+                long[] range = parseIdRange(file);
+                if (range != null && (id < range[0] || id > range[1]))
+                {
+                    continue;
+                }
+                try (BufferedReader reader = new BufferedReader(new InputStreamReader(new GZIPInputStream(new FileInputStream(file)), StandardCharsets.UTF_8)))
+                {
+                    String line;
+                    while ((line = reader.readLine()) != null)
+                    {
+                        T row = JSON.parseObject(line, clazz);
+                        Long rowId = row == null ? null : idOf.apply(row);
+                        if (id.equals(rowId))
+                        {
+                            return row;
+                        }
+                        // 文件内按ID升序，已越过目标ID
+                        if (rowId != null && rowId > id)
+                        {
+                            break;
+                        }
+                    }
+                }
+                catch (IOException e)
+                {
+                    log.error("读取归档文件{}异常'{}'", file.getPath(), e.getMessage());
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 从文件名解析ID范围（yyyyMM-时间戳-最小ID-最大ID.json.gz），旧格式文件名返回null
+     */
+    private static long[] parseIdRange(File file)
+    {
+        String[] parts = StringUtils.removeEnd(file.getName(), ARCHIVE_SUFFIX).split("-");
+        if (parts.length != 4)
+        {
+            return null;
+        }
+        try
+        {
+            return new long[] { Long.parseLong(parts[2]), Long.parseLong(parts[3]) };
+        }
+        catch (NumberFormatException e)
+        {
+            return null;
+        }
+    }
+
+    /**
+     * 获取时间范围内的归档文件，按月份分组
+     */
+    private NavigableMap<YearMonth, List<File>> selectArchiveFiles(String tableName, Date beginTime, Date endTime)
+    {
+        NavigableMap<YearMonth, List<File>> result = new TreeMap<>();
+        File[] files = new File(RuoYiConfig.getArchivePath(), tableName).listFiles((dir, name) -> name.endsWith(ARCHIVE_SUFFIX));
+        if (files == null)
+        {
+            return result;
+        }
+        YearMonth beginMonth = beginTime == null ? null : toMonth(beginTime);
+        YearMonth endMonth = endTime == null ? null : toMonth(endTime);
+        for (File file : files)
+        {
+            YearMonth month;
+            try
+            {
+                month = YearMonth.parse(file.getName().substring(0, 6), MONTH_FORMATTER);
+            }
+            catch (Exception e)
+            {
+                continue;
+            }
+            if ((beginMonth == null || !month.isBefore(beginMonth)) && (endMonth == null || !month.isAfter(endMonth)))
+            {
+                result.computeIfAbsent(month, key -> new ArrayList<>()).add(file);
+            }
+        }
+        for (List<File> monthFiles : result.values())
+        {
+            Collections.sort(monthFiles);
+        }
+        return result;
+    }
+
+    private static YearMonth toMonth(Date date)
+    {
+        LocalDate localDate = date.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+        return YearMonth.from(localDate);
+    }
+
+    private static boolean containsIgnoreCase(String value, String keyword)
+    {
+        return StringUtils.isEmpty(keyword) || StringUtils.containsIgnoreCase(value, keyword);
+    }
+
+    private static boolean inRange(Date time, Date beginTime, Date endTime)
+    {
+        if (time == null)
+        {
+            return beginTime == null && endTime == null;
+        }
+        return (beginTime == null || !time.before(beginTime)) && (endTime == null || !time.after(endTime));
+    }
+
+    /**
+     * 按时间段分批查询
+     */
+    @FunctionalInterface
+    private interface BatchSelect<T>
+    {
+        List<T> select(Date beginTime, Date endTime, Long lastId, int limit);
+    }
+}
@@ -3,8 +3,10 @@ package com.ruoyi.system.service.impl;
 import java.util.List;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import com.ruoyi.common.utils.PageUtils;
 import com.ruoyi.system.domain.SysLogininfor;
 import com.ruoyi.system.mapper.SysLogininforMapper;
+import com.ruoyi.system.service.ISysLogArchiveService;
 import com.ruoyi.system.service.ISysLogininforService;
 
 /**
@@ -19,6 +21,9 @@ public class SysLogininforServiceImpl implements ISysLogininforService
     @Autowired
     private SysLogininforMapper logininforMapper;
 
+    @Autowired
+    private ISysLogArchiveService logArchiveService;
+
     /**
      * 新增系统登录日志
      * 
@@ -30,6 +35,17 @@ public class SysLogininforServiceImpl implements ISysLogininforService
         logininforMapper.insertLogininfor(logininfor);
     }
 
+    /**
+     * 批量新增系统登录日志
+     * 
+     * @param logininforList 访问日志列表
+     */
+    @Override
+    public void insertLogininforBatch(List<SysLogininfor> logininforList)
+    {
+        logininforMapper.batchLogininfor(logininforList);
+    }
+
     /**
      * 查询系统登录日志集合
      * 
@@ -39,6 +55,12 @@ public class SysLogininforServiceImpl implements ISysLogininforService
     @Override
     public List<SysLogininfor> selectLogininforList(SysLogininfor logininfor)
     {
+        if (!PageUtils.isKeysetPage(logininfor) && logArchiveService.hasArchive(ISysLogArchiveService.LOGININFOR_TABLE, logininfor.getParams()))
+        {
+            // 查询范围包含已归档月份时，在数据库结果之后追加归档数据（游标分页只查询数据库）
+            return PageUtils.appendPage(() -> logininforMapper.selectLogininforList(logininfor),
+                    logArchiveService.selectArchivedLogininforList(logininfor));
+        }
         return logininforMapper.selectLogininforList(logininfor);
     }
 
@@ -25,6 +25,7 @@ import com.ruoyi.system.mapper.SysMenuMapper;
 import com.ruoyi.system.mapper.SysRoleMapper;
 import com.ruoyi.system.mapper.SysRoleMenuMapper;
 import com.ruoyi.system.service.ISysMenuService;
+import com.ruoyi.system.service.ISysPermissionVersionService;
 
 /**
  * 菜单 业务层处理
@@ -49,6 +50,9 @@ public class SysMenuServiceImpl implements ISysMenuService
     @Autowired
     private SysRoleMenuMapper roleMenuMapper;
 
+    @Autowired
+    private ISysPermissionVersionService permissionVersionService;
+
     /**
      * 根据用户查询系统菜单列表
      * 
@@ -84,6 +88,26 @@ public class SysMenuServiceImpl implements ISysMenuService
         return menuList;
     }
 
+    /**
+     * 查询所有菜单权限
+     * 
+     * @return 权限列表
+     */
+    @Override
+    public Set<String> selectMenuPerms()
+    {
+        List<String> perms = menuMapper.selectMenuPerms();
+        Set<String> permsSet = new HashSet<>();
+        for (String perm : perms)
+        {
+            if (StringUtils.isNotEmpty(perm))
+            {
+                permsSet.addAll(Arrays.asList(perm.trim().split(",")));
+            }
+        }
+        return permsSet;
+    }
+
     /**
      * 根据用户ID查询权限
      * 
@@ -306,7 +330,9 @@ public class SysMenuServiceImpl implements ISysMenuService
     @Override
     public int insertMenu(SysMenu menu)
     {
-        return menuMapper.insertMenu(menu);
+        int rows = menuMapper.insertMenu(menu);
+        permissionVersionService.increaseVersion();
+        return rows;
     }
 
     /**
@@ -318,7 +344,9 @@ public class SysMenuServiceImpl implements ISysMenuService
     @Override
     public int updateMenu(SysMenu menu)
     {
-        return menuMapper.updateMenu(menu);
+        int rows = menuMapper.updateMenu(menu);
+        permissionVersionService.increaseVersion();
+        return rows;
     }
 
     /**
@@ -330,7 +358,9 @@ public class SysMenuServiceImpl implements ISysMenuService
     @Override
     public int deleteMenuById(Long menuId)
     {
-        return menuMapper.deleteMenuById(menuId);
+        int rows = menuMapper.deleteMenuById(menuId);
+        permissionVersionService.increaseVersion();
+        return rows;
     }
 
     /**
@@ -3,8 +3,11 @@ package com.ruoyi.system.service.impl;
 import java.util.List;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import com.ruoyi.common.utils.PageUtils;
+import com.ruoyi.common.utils.StringUtils;
 import com.ruoyi.system.domain.SysOperLog;
 import com.ruoyi.system.mapper.SysOperLogMapper;
+import com.ruoyi.system.service.ISysLogArchiveService;
 import com.ruoyi.system.service.ISysOperLogService;
 
 /**
@@ -18,6 +21,9 @@ public class SysOperLogServiceImpl implements ISysOperLogService
     @Autowired
     private SysOperLogMapper operLogMapper;
 
+    @Autowired
+    private ISysLogArchiveService logArchiveService;
+
     /**
      * 新增操作日志
      * 
@@ -29,6 +35,17 @@ public class SysOperLogServiceImpl implements ISysOperLogService
         operLogMapper.insertOperlog(operLog);
     }
 
+    /**
+     * 批量新增操作日志
+     * 
+     * @param operLogList 操作日志列表
+     */
+    @Override
+    public void insertOperlogBatch(List<SysOperLog> operLogList)
+    {
+        operLogMapper.batchOperlog(operLogList);
+    }
+
     /**
      * 查询系统操作日志集合
      * 
@@ -38,6 +55,12 @@ public class SysOperLogServiceImpl implements ISysOperLogService
     @Override
     public List<SysOperLog> selectOperLogList(SysOperLog operLog)
     {
+        if (!PageUtils.isKeysetPage(operLog) && logArchiveService.hasArchive(ISysLogArchiveService.OPER_LOG_TABLE, operLog.getParams()))
+        {
+            // 查询范围包含已归档月份时，在数据库结果之后追加归档数据（游标分页只查询数据库）
+            return PageUtils.appendPage(() -> operLogMapper.selectOperLogList(operLog),
+                    logArchiveService.selectArchivedOperLogList(operLog));
+        }
         return operLogMapper.selectOperLogList(operLog);
     }
 
@@ -62,7 +85,12 @@ public class SysOperLogServiceImpl implements ISysOperLogService
     @Override
     public SysOperLog selectOperLogById(Long operId)
     {
-        return operLogMapper.selectOperLogById(operId);
+        SysOperLog operLog = operLogMapper.selectOperLogById(operId);
+        if (StringUtils.isNull(operLog))
+        {
+            operLog = logArchiveService.selectArchivedOperLogById(operId);
+        }
+        return operLog;
     }
 
     /**
@@ -0,0 +1,152 @@
+package com.ruoyi.system.service.impl;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import com.ruoyi.common.constant.CacheConstants;
+import com.ruoyi.common.core.redis.RedisCache;
+import com.ruoyi.common.core.text.Convert;
+import com.ruoyi.common.utils.StringUtils;
+import com.ruoyi.system.service.ISysPermissionVersionService;
+
+/**
+ * 角色菜单权限版本 服务层处理
+ * 
+ * 版本号保存在redis中，变更时通过广播推送到各节点；本地版本号超过刷新间隔后重新读取，避免广播丢失导致长期不一致。
+ * 本地版本号只增不减，redis数据丢失后（INCR从1重新开始）用本地版本号回填，避免版本号回退后命中旧缓存。
+ * 
+ * @author ruoyi
+ */
+@Service
+public class SysPermissionVersionServiceImpl implements ISysPermissionVersionService, MessageListener
+{
+    private static final Logger log = LoggerFactory.getLogger(SysPermissionVersionServiceImpl.class);
+
+    /**
+     * 本地版本号刷新间隔（毫秒）
+     */
+    private static final long REFRESH_INTERVAL = 10 * 1000L;
+
+    @Autowired
+    private RedisCache redisCache;
+
+    @Autowired
+    private RedisMessageListenerContainer listenerContainer;
+
+    private volatile long version;
+
+    private volatile long refreshTime;
+
+    @PostConstruct
+    public void init()
+    {
+        listenerContainer.addMessageListener(this, new ChannelTopic(CacheConstants.SYS_PERMISSION_CHANNEL));
+    }
+
+    /**
+     * 获取当前权限版本号
+     * 
+     * @return 版本号
+     */
+    @Override
+    public long getVersion()
+    {
+        long now = System.currentTimeMillis();
+        if (now - refreshTime > REFRESH_INTERVAL)
+        {
+            try
+            {
+                long remoteVersion = Convert.toLong(redisCache.getCacheObject(CacheConstants.SYS_PERMISSION_VERSION_KEY), 0L);
+                if (remoteVersion < version)
+                {
+                    log.warn("权限版本号'{}'小于本地版本号'{}'，回填redis", remoteVersion, version);
+                    remoteVersion = redisCache.setIfGreater(CacheConstants.SYS_PERMISSION_VERSION_KEY, version);
+                }
+                updateVersion(remoteVersion);
+                refreshTime = now;
+            }
+            catch (Exception e)
+            {
+                log.error("读取权限版本号异常'{}'", e.getMessage());
+            }
+        }
+        return version;
+    }
+
+    /**
+     * 递增版本号，存在事务时在提交后执行
+     */
+    @Override
+    public void increaseVersion()
+    {
+        if (TransactionSynchronizationManager.isSynchronizationActive())
+        {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization()
+            {
+                @Override
+                public void afterCommit()
+                {
+                    doIncreaseVersion();
+                }
+            });
+        }
+        else
+        {
+            doIncreaseVersion();
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern)
+    {
+        Long newVersion = Convert.toLong(redisCache.getMessageBody(message));
+        if (StringUtils.isNotNull(newVersion) && updateVersion(newVersion))
+        {
+            refreshTime = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * 只在新版本号更大时更新本地版本号
+     * 
+     * @param newVersion 新版本号
+     * @return 是否更新
+     */
+    private synchronized boolean updateVersion(long newVersion)
+    {
+        if (newVersion > version)
+        {
+            version = newVersion;
+            return true;
+        }
+        return false;
+    }
+
+    private void doIncreaseVersion()
+    {
+        try
+        {
+            long newVersion = redisCache.increment(CacheConstants.SYS_PERMISSION_VERSION_KEY);
+            if (newVersion <= version)
+            {
+                // redis数据丢失后计数从1重新开始，跳过本地已见过的版本号
+                newVersion = redisCache.setIfGreater(CacheConstants.SYS_PERMISSION_VERSION_KEY, version + 1);
+            }
+            updateVersion(newVersion);
+            refreshTime = System.currentTimeMillis();
+            redisCache.publish(CacheConstants.SYS_PERMISSION_CHANNEL, String.valueOf(newVersion));
+        }
+        catch (Exception e)
+        {
+            log.error("更新权限版本号异常'{}'", e.getMessage());
+        }
+    }
+}
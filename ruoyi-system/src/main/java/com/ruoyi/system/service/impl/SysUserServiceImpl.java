@@ -30,6 +30,7 @@ import com.ruoyi.system.mapper.SysUserPostMapper;
 import com.ruoyi.system.mapper.SysUserRoleMapper;
 import com.ruoyi.system.service.ISysConfigService;
 import com.ruoyi.system.service.ISysDeptService;
+import com.ruoyi.system.service.ISysPermissionVersionService;
 import com.ruoyi.system.service.ISysUserService;
 
 /**
@@ -63,6 +64,9 @@ public class SysUserServiceImpl implements ISysUserService
     @Autowired
     private ISysDeptService deptService;
 
+    @Autowired
+    private ISysPermissionVersionService permissionVersionService;
+
     @Autowired
     protected Validator validator;
 
@@ -301,6 +305,7 @@ public class SysUserServiceImpl implements ISysUserService
         userPostMapper.deleteUserPostByUserId(userId);
         // 新增用户与岗位管理
         insertUserPost(user);
+        permissionVersionService.increaseVersion();
         return userMapper.updateUser(user);
     }
 
@@ -316,6 +321,7 @@ public class SysUserServiceImpl implements ISysUserService
     {
         userRoleMapper.deleteUserRoleByUserId(userId);
         insertUserRole(userId, roleIds);
+        permissionVersionService.increaseVersion();
     }
 
     /**